@@ -0,0 +1,75 @@
+package com.example.springboot3newsreader.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// app.datasource.replica.jdbc-url 非空时启用读写分离，未配置时沿用 Spring Boot 默认的单数据源
+// 1) 主库：spring.datasource.*（docker compose 启动时用其连接信息），连接池参数取 spring.datasource.hikari.*；Flyway 只在主库执行
+// 2) 从库：独立连接池，参数取 app.datasource.replica.*，未配置的账号沿用主库
+// 3) JPA / JdbcTemplate 使用的 @Primary 数据源为 LazyConnectionDataSourceProxy(ReadWriteRoutingDataSource)
+@Configuration
+@ConditionalOnExpression("'${app.datasource.replica.jdbc-url:}' != ''")
+public class DataSourceConfig {
+
+  @Value("${app.datasource.replica.retry-after-ms:30000}")
+  private long replicaRetryAfterMs;
+
+  @Bean
+  @FlywayDataSource
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties,
+      ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+    JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+    DataSourceBuilder<?> builder = details == null
+        ? properties.initializeDataSourceBuilder()
+        : DataSourceBuilder.create(properties.getClassLoader())
+            .url(details.getJdbcUrl())
+            .username(details.getUsername())
+            .password(details.getPassword())
+            .driverClassName(details.getDriverClassName());
+    HikariDataSource dataSource = builder.type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica")
+  public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setDriverClassName(properties.determineDriverClassName());
+    dataSource.setUsername(properties.determineUsername());
+    dataSource.setPassword(properties.determinePassword());
+    // 从库不可用时尽快回退主库，而不是等满默认的 30 秒
+    dataSource.setConnectionTimeout(2000);
+    dataSource.setMaximumPoolSize(5);
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+    System.out.println("[datasource] read/write routing enabled, replica: " + replicaDataSource.getJdbcUrl());
+    return new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaRetryAfterMs));
+  }
+
+  @Bean
+  public ReplicaReadAspect replicaReadAspect() {
+    return new ReplicaReadAspect();
+  }
+}
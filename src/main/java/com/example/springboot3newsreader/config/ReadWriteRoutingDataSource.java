@@ -0,0 +1,90 @@
+package com.example.springboot3newsreader.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 读写分离路由：只读事务（由 ReplicaReadAspect 标记的 @Transactional(readOnly = true) 服务方法）走从库，其余走主库
+// 1) 路由在取物理连接时决定，外层需包一层 LazyConnectionDataSourceProxy，保证此时事务的只读标记已经设置
+// 2) 仓库自带的只读事务（SimpleJpaRepository.findById 等）不会被标记，写入后立即回读的流程不受从库延迟影响
+// 3) 从库取连接失败时回退主库，并在 retry-after-ms 内不再尝试从库
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  public enum Route {
+    PRIMARY, REPLICA
+  }
+
+  private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final long retryAfterMs;
+  private volatile long replicaDownUntil;
+
+  public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long retryAfterMs) {
+    this.primary = primary;
+    this.replica = replica;
+    this.retryAfterMs = retryAfterMs;
+    setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  // 标记当前线程进入 / 离开可读从库的服务方法，返回之前的值用于恢复
+  static Boolean markReplicaRead(Boolean value) {
+    Boolean previous = REPLICA_READ.get();
+    if (value == null) {
+      REPLICA_READ.remove();
+    } else {
+      REPLICA_READ.set(value);
+    }
+    return previous;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (Boolean.TRUE.equals(REPLICA_READ.get())
+        && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && System.currentTimeMillis() >= replicaDownUntil) {
+      return Route.REPLICA;
+    }
+    return Route.PRIMARY;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (determineCurrentLookupKey() != Route.REPLICA) {
+      return primary.getConnection();
+    }
+    try {
+      return replica.getConnection();
+    } catch (SQLException e) {
+      markReplicaDown(e);
+      return primary.getConnection();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (determineCurrentLookupKey() != Route.REPLICA) {
+      return primary.getConnection(username, password);
+    }
+    try {
+      return replica.getConnection(username, password);
+    } catch (SQLException e) {
+      markReplicaDown(e);
+      return primary.getConnection(username, password);
+    }
+  }
+
+  private void markReplicaDown(SQLException e) {
+    replicaDownUntil = System.currentTimeMillis() + retryAfterMs;
+    System.err.println("[datasource] replica unavailable, reading from primary for " + retryAfterMs + "ms: "
+        + e.getMessage());
+  }
+}
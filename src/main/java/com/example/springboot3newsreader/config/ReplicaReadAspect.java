@@ -0,0 +1,25 @@
+package com.example.springboot3newsreader.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+// services 包下声明 @Transactional(readOnly = true) 的方法在执行期间允许读从库
+// 嵌套在读写事务中调用时事务本身不是只读的，仍走主库
+@Aspect
+public class ReplicaReadAspect {
+
+  @Around("execution(* com.example.springboot3newsreader.services..*(..)) && @annotation(transactional)")
+  public Object routeReadOnly(ProceedingJoinPoint pjp, Transactional transactional) throws Throwable {
+    if (!transactional.readOnly()) {
+      return pjp.proceed();
+    }
+    Boolean previous = ReadWriteRoutingDataSource.markReplicaRead(Boolean.TRUE);
+    try {
+      return pjp.proceed();
+    } finally {
+      ReadWriteRoutingDataSource.markReplicaRead(previous);
+    }
+  }
+}
@@ -10,19 +10,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.springboot3newsreader.ApiResponse;
-import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
-import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
+import com.example.springboot3newsreader.services.NewsArticleService;
 
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
 
   @Autowired
-  private NewsArticleRepository newsArticleRepository;
+  private NewsArticleService newsArticleService;
 
   @GetMapping
   public ResponseEntity<?> listCategories() {
@@ -35,13 +36,14 @@ public class CategoryController {
   }
 
   @GetMapping("/{category}/newsarticles")
-  public ResponseEntity<?> getArticlesByCategory(@PathVariable String category) {
+  public ResponseEntity<?> getArticlesByCategory(@PathVariable String category,
+      @RequestParam(name = "collapse", defaultValue = "false") boolean collapse) {
     NewsCategory c = NewsCategory.fromKey(category);
     if (c == null) {
       return ResponseEntity.status(HttpStatus.BAD_REQUEST)
           .body(new ApiResponse<>(400, "invalid category", null));
     }
-    List<NewsArticle> articles = newsArticleRepository.findByCategoryOrderByIdDesc(c);
+    List<NewsArticleCard> articles = newsArticleService.getCardsByCategory(c, collapse);
     return ResponseEntity.ok(new ApiResponse<>(200, "ok", articles));
   }
 
@@ -11,7 +11,9 @@ import java.util.List;
 import com.example.springboot3newsreader.models.FeedItem;
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
+import com.example.springboot3newsreader.repositories.ArchivedNewsArticleRepository;
 import com.example.springboot3newsreader.repositories.FeedItemRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleContentRepository;
 import com.example.springboot3newsreader.repositories.NewsArticleRepository;
 import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
 import com.example.springboot3newsreader.services.FeedItemService;
@@ -30,6 +32,10 @@ public class FormController {
   @Autowired
   private NewsArticleRepository newsArticleRepository;
   @Autowired
+  private NewsArticleContentRepository newsArticleContentRepository;
+  @Autowired
+  private ArchivedNewsArticleRepository archivedNewsArticleRepository;
+  @Autowired
   private ThumbnailTaskRepository thumbnailTaskRepository;
   @Autowired
   private IngestPipelineService ingestPipelineService;
@@ -168,6 +174,9 @@ public class FormController {
   public ResponseEntity<?> clearBusinessTables() {
     // 按依赖顺序清空，避免外键约束问题
     thumbnailTaskRepository.deleteAll();
+    newsArticleContentRepository.deleteAllInBatch();
+    archivedNewsArticleRepository.deleteArchivedTags();
+    archivedNewsArticleRepository.deleteAllArchived();
     newsArticleRepository.deleteAll();
     feedItemRepository.deleteAll();
     return ResponseEntity.ok(new ApiResponse<>(200, "cleared", null));
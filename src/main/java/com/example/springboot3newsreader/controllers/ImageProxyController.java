@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.springboot3newsreader.services.ingest.ContentDecoding;
+
 @RestController
 public class ImageProxyController {
 
@@ -40,6 +42,8 @@ public class ImageProxyController {
         conn.setConnectTimeout(TIMEOUT_MS);
         conn.setReadTimeout(TIMEOUT_MS);
         conn.setRequestProperty("User-Agent", USER_AGENT);
+        // SVG 等文本类图片可压缩传输；返回给前端前先解压（响应不带 Content-Encoding）
+        conn.setRequestProperty("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
 
         String ref = referer;
         if ((ref == null || ref.isBlank()) && current.contains("qbitai.com")) {
@@ -74,7 +78,7 @@ public class ImageProxyController {
         }
 
         byte[] body;
-        try (InputStream in = conn.getInputStream();
+        try (InputStream in = ContentDecoding.decode(conn.getInputStream(), conn.getContentEncoding());
           ByteArrayOutputStream out = new ByteArrayOutputStream()) {
           byte[] buf = new byte[8192];
           int len;
@@ -1,5 +1,6 @@
 package com.example.springboot3newsreader.controllers;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
 import com.example.springboot3newsreader.models.dto.NewsArticleSearchRequest;
 
 @RestController
@@ -32,8 +34,9 @@ public class NewsArticleController {
   NewsArticleService newsArticleService;
 
   @GetMapping
-  public ResponseEntity<?> getAllNewsArticles() {
-    List<NewsArticle> articleList = newsArticleService.getAll();
+  public ResponseEntity<?> getAllNewsArticles(
+      @RequestParam(name = "collapse", defaultValue = "false") boolean collapse) {
+    List<NewsArticleCard> articleList = newsArticleService.getAllCards(collapse);
     return ResponseEntity.ok(new ApiResponse<>(200, "ok", articleList));
   }
 
@@ -49,13 +52,16 @@ public class NewsArticleController {
 
   @GetMapping("/refresh")
   public ResponseEntity<?> getRefreshedContent() {
-    List<NewsArticle> updatedArticles = newsArticleService.refreshFromRssFeeds();
+    List<NewsArticleCard> updatedArticles = newsArticleService.refreshFromRssFeeds();
     return ResponseEntity.ok(new ApiResponse<>(200, "ok", updatedArticles));
   }
 
   @PostMapping("/search")
   public ResponseEntity<?> searchArticles(@RequestBody NewsArticleSearchRequest request) {
-    List<NewsArticle> results = newsArticleService.search(request);
+    // 默认只返回卡片列；includeContent=true 时返回带原文的完整文章
+    List<?> results = request.isIncludeContent()
+        ? newsArticleService.search(request)
+        : newsArticleService.searchCards(request);
     return ResponseEntity.ok(new ApiResponse<>(200, "ok", results, results.size()));
   }
 
@@ -69,7 +75,7 @@ public class NewsArticleController {
   public ResponseEntity<?> handleNotReadable(HttpMessageNotReadableException ex) {
     String message = "Invalid request body. Only these fields are supported: "
         + "category, keyword, keywordGroups, groupMode, sources, tags, startDateTime, endDateTime, "
-        + "sortOrder, includeContent. "
+        + "sortOrder, includeContent, collapseClusters. "
         + "Datetime fields must be ISO 8601 UTC with 'Z', e.g. 2026-02-13T02:35:00Z.";
     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
         .body(new ApiResponse<>(400, message, null));
@@ -97,8 +103,8 @@ public class NewsArticleController {
       article.setTitle("Toy Article " + index);
       article.setSourceURL(sourceUrls[i]);
       article.setSourceName("TOY_SOURCE");
-      article.setPublishedAt(String.format("2026-01-%02dT10:00:00Z", index));
-      article.setScrapedAt(String.format("2026-01-%02dT10:05:00Z", index));
+      article.setPublishedAt(Instant.parse(String.format("2026-01-%02dT10:00:00Z", index)));
+      article.setScrapedAt(Instant.parse(String.format("2026-01-%02dT10:05:00Z", index)));
       article.setSummary("Toy summary " + index);
       article.setTags("[\"toy\",\"seed\"]");
       article.setTumbnailURL(thumbnailUrl);
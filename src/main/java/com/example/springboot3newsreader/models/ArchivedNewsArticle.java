@@ -0,0 +1,40 @@
+package com.example.springboot3newsreader.models;
+
+import org.hibernate.annotations.Immutable;
+import org.springframework.beans.BeanUtils;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 归档文章（news_article_archive，ROW_FORMAT=COMPRESSED），由 ArticleArchiveService 用 SQL 从活跃表整行搬入
+// 只读：id 保持原值，原文（news_article_content）与标签（article_tag）按 id 共用，不随归档搬动
+@Entity
+@Immutable
+@Table(name = "news_article_archive", indexes = {
+    @Index(name = "uk_news_article_archive_url_hash", columnList = "urlHash", unique = true),
+    @Index(name = "idx_news_article_archive_category_published", columnList = "category, published_time"),
+    @Index(name = "idx_news_article_archive_published", columnList = "published_time")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class ArchivedNewsArticle extends NewsArticleBase {
+
+  @Id
+  Long id;
+
+  // 转成 NewsArticle 返回给接口（不是托管实体，只用于输出）；标签集合不复制，避免触发懒加载
+  public NewsArticle toNewsArticle() {
+    NewsArticle a = new NewsArticle();
+    BeanUtils.copyProperties(this, a, "tagSet");
+    return a;
+  }
+}
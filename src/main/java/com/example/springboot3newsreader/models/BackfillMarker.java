@@ -0,0 +1,32 @@
+package com.example.springboot3newsreader.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 一次性回填的完成标记：回填整轮无错误跑完后写入，之后启动时直接跳过
+@Entity
+@Table(name = "backfill_marker")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackfillMarker {
+
+  public static final String URL_HASH = "url_hash";
+  public static final String TITLE_FINGERPRINT = "title_fingerprint";
+  public static final String TIMESTAMPS = "published_time";
+  public static final String ARTICLE_TAG = "article_tag";
+  public static final String RAW_CONTENT = "raw_content";
+
+  // 回填名称（上面的常量）
+  @Id
+  String name;
+
+  // 完成时间
+  Instant completedAt;
+}
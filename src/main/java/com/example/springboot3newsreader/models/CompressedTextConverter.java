@@ -0,0 +1,148 @@
+package com.example.springboot3newsreader.models;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// 原文在库中以压缩后的二进制存放（news_article_content.content，LONGBLOB）
+// 格式：0xFF + 版本字节 + 数据
+// 1) 版本 1：raw deflate，使用下面的预置字典（RSS 描述 HTML 与推文 JSON 中的常见片段）
+// 2) 版本 0：原样 UTF-8（压缩后反而更大的短文本）
+// 3) 版本 2：MariaDB COMPRESS() 的结果（4 字节长度 + zlib），由 V4 迁移与旧列搬迁在 SQL 中就地压缩已有数据
+// 4) 不以 0xFF 开头的按未压缩的 UTF-8 读取（UTF-8 中不会出现 0xFF）
+// 只在读取 NewsArticleContent 时解压，而它只在详情或 includeContent=true 时才会被加载
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+  private static final byte MAGIC = (byte) 0xFF;
+  private static final byte VERSION_PLAIN = 0;
+  private static final byte VERSION_DEFLATE_DICT = 1;
+  private static final byte VERSION_SQL_COMPRESS = 2;
+
+  // 版本 1 的字典：一经写入数据就不能再改，换字典需要新的版本号
+  // deflate 对靠近字典末尾的片段编码更短，最常见的片段放在最后
+  private static final byte[] DICTIONARY = String.join("",
+      "<figure><figcaption></figcaption></figure><table><tr><td></td></tr></table><blockquote></blockquote>",
+      "<iframe src=\"https://www.youtube.com/embed/\" frameborder=\"0\" allowfullscreen></iframe>",
+      "<h2></h2><h3></h3><ul><li></li></ul><ol></ol><em></em><b></b><i></i><code></code><pre></pre>",
+      "\"possibly_sensitive\":false,\"is_quote_status\":false,\"quote_count\":0,\"reply_count\":0,",
+      "\"retweet_count\":0,\"favorite_count\":0,\"bookmark_count\":0,\"conversation_id_str\":\"",
+      "\"in_reply_to_status_id_str\":\"\",\"in_reply_to_user_id_str\":\"\",\"in_reply_to_screen_name\":\"",
+      "\"display_text_range\":[0,],\"lang\":\"en\",\"lang\":\"zh\",\"source\":\"<a href=\\\"https://",
+      "\"ext_media_availability\":{\"status\":\"Available\"},\"sizes\":{\"large\":{\"h\":,\"w\":,",
+      "\"resize\":\"fit\"},\"medium\":{\"h\":,\"small\":{\"h\":,\"thumb\":{\"h\":150,\"w\":150,\"resize\":\"crop\"}},",
+      "\"original_info\":{\"height\":,\"width\":,\"focus_rects\":[{\"x\":0,\"y\":0,\"w\":,\"h\":}]},",
+      "\"media_url_https\":\"https://pbs.twimg.com/media/\",\"type\":\"photo\",\"display_url\":\"pic.x.com/\",",
+      "\"expanded_url\":\"https://x.com/\",\"id_str\":\"\",\"indices\":[,],\"media_key\":\"3_\",",
+      "\"entities\":{\"hashtags\":[],\"symbols\":[],\"timestamps\":[],\"urls\":[],\"user_mentions\":[]},",
+      "\"extended_entities\":{\"media\":[{\"text\":\"\",\"screen_name\":\"\",\"name\":\"\",\"url\":\"https://t.co/\",",
+      "\"core\":{\"user_results\":{\"result\":{\"__typename\":\"User\",\"id\":\"\",\"rest_id\":\"\",",
+      "\"is_blue_verified\":true,\"profile_image_url_https\":\"https://pbs.twimg.com/profile_images/\",",
+      "\"legacy\":{\"created_at\":\"\",\"description\":\"\",\"followers_count\":,\"friends_count\":,",
+      "\"pinned_tweet_ids_str\":[],\"verified\":false},\"note_tweet\":{\"note_tweet_results\":{\"result\":{",
+      "\"views\":{\"count\":\"\",\"state\":\"EnabledWithCount\"},\"edit_control\":{\"edit_tweet_ids\":[\"",
+      "\"__typename\":\"Tweet\",\"rest_id\":\"\",\"full_text\":\"\",\"created_at\":\"Mon Tue Wed Thu Fri Sat Sun ",
+      "Jan Feb Mar Apr May Jun Jul Aug Sep Oct Nov Dec +0000 2025\",\"favorited\":false,\"retweeted\":false,",
+      "<span style=\"\"></span><strong></strong><br /><br/><hr />&amp;&quot;&nbsp;&#8217;&#39;",
+      "<div class=\"\"></div><a href=\"https://\" target=\"_blank\" rel=\"noopener noreferrer\">",
+      "</a><img src=\"https://\" alt=\"\" width=\"\" height=\"\" referrerpolicy=\"no-referrer\" />",
+      "<p></p>\n<p>").getBytes(StandardCharsets.UTF_8);
+
+  @Override
+  public byte[] convertToDatabaseColumn(String attribute) {
+    return compress(attribute);
+  }
+
+  @Override
+  public String convertToEntityAttribute(byte[] dbData) {
+    return decompress(dbData);
+  }
+
+  public static byte[] compress(String text) {
+    if (text == null) {
+      return null;
+    }
+    byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    try {
+      deflater.setDictionary(DICTIONARY);
+      deflater.setInput(plain);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 3 + 16);
+      out.write(MAGIC);
+      out.write(VERSION_DEFLATE_DICT);
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(buffer);
+        out.write(buffer, 0, n);
+        if (out.size() > plain.length + 2) {
+          return plain(plain);
+        }
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  public static String decompress(byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    if (!isCompressed(data)) {
+      return new String(data, StandardCharsets.UTF_8);
+    }
+    if (data[1] == VERSION_PLAIN) {
+      return new String(data, 2, data.length - 2, StandardCharsets.UTF_8);
+    }
+    if (data[1] == VERSION_SQL_COMPRESS) {
+      // COMPRESS('') 为空串；否则跳过 4 字节的原长度
+      return data.length <= 6 ? "" : inflate(new Inflater(), data, 6);
+    }
+    if (data[1] != VERSION_DEFLATE_DICT) {
+      throw new IllegalStateException("unknown rawContent format version " + data[1]);
+    }
+    Inflater inflater = new Inflater(true);
+    // raw deflate 不带字典标记，字典需在解压前给定
+    inflater.setDictionary(DICTIONARY);
+    return inflate(inflater, data, 2);
+  }
+
+  private static String inflate(Inflater inflater, byte[] data, int offset) {
+    try {
+      inflater.setInput(data, offset, data.length - offset);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(buffer);
+        if (n == 0 && inflater.needsInput()) {
+          throw new IllegalStateException("truncated rawContent");
+        }
+        out.write(buffer, 0, n);
+      }
+      return out.toString(StandardCharsets.UTF_8);
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("corrupt rawContent", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  // 以 0xFF 开头的带版本头，否则是未压缩的 UTF-8
+  private static boolean isCompressed(byte[] data) {
+    return data != null && data.length >= 2 && data[0] == MAGIC;
+  }
+
+  private static byte[] plain(byte[] utf8) {
+    byte[] out = new byte[utf8.length + 2];
+    out[0] = MAGIC;
+    out[1] = VERSION_PLAIN;
+    System.arraycopy(utf8, 0, out, 2, utf8.length);
+    return out;
+  }
+}
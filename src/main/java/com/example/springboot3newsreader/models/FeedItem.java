@@ -1,6 +1,7 @@
 package com.example.springboot3newsreader.models;
 
 import java.time.LocalDateTime;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -37,4 +38,30 @@ public class FeedItem {
   String etag;
   String lastModified;
 
+  // 条目高水位：已处理过的最新条目发布时间（ISO 8601）及其 guid/link
+  // 解析时发布时间不晚于它的条目直接跳过，不再做 HTML 解析与去重
+  String watermarkPublishedAt;
+  @Column(length = 1024)
+  String watermarkEntryKey;
+
+  // 上次成功入库时响应体的 SHA-256（hex），用于不支持条件 GET 的源
+  String contentHash;
+  // 同上，但忽略 <lastBuildDate> 的内容
+  String normalizedContentHash;
+
+  // 自适应调度状态（见 FeedPollScheduler）
+  LocalDateTime nextPollAt;
+  LocalDateTime lastPolledAt;
+  Integer pollIntervalMinutes;
+  // 连续没有新条目的抓取次数（304 / 内容未变 / 全部重复）
+  Integer unchangedStreak;
+  // 新条目速率（条/小时，指数平均）
+  Double newItemsPerHour;
+  // feed 自带的更新周期：RSS <ttl> 或 sy:updatePeriod / sy:updateFrequency 换算的分钟数
+  Integer publisherTtlMinutes;
+
+  // 最近一次 200 响应体的大小：线上字节数（压缩后）与解压后字节数
+  Long lastWireBytes;
+  Long lastDecodedBytes;
+
 }
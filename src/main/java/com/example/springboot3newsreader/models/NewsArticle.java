@@ -1,52 +1,60 @@
 package com.example.springboot3newsreader.models;
 
-import java.time.LocalDateTime;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Column;
-import jakarta.persistence.Lob;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.EnumType;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import com.example.springboot3newsreader.services.dedupe.ArticleIndexListener;
+import com.example.springboot3newsreader.services.dedupe.TitleFingerprint;
+import com.example.springboot3newsreader.services.dedupe.UrlNormalizer;
+import com.example.springboot3newsreader.services.ingest.ArticleTags;
+
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+// 活跃文章（news_article）；超过保留期的由 ArticleArchiveService 搬到归档表，字段见 NewsArticleBase
 @Entity
+// 表结构与索引由 Flyway 脚本（db/migration）维护，这里的索引声明与脚本保持一致
+@Table(indexes = {
+    @Index(name = "uk_news_article_url_hash", columnList = "urlHash", unique = true),
+    // 按分类 + 时间范围 / 排序的搜索，以及不限分类的时间范围搜索
+    @Index(name = "idx_news_article_category_published", columnList = "category, published_time"),
+    @Index(name = "idx_news_article_published", columnList = "published_time")
+})
+// url_hash 冲突的插入由 NewsArticleContentService.saveAll 逐条重试并跳过
+@EntityListeners(ArticleIndexListener.class)
 @Data
-@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @NoArgsConstructor
-public class NewsArticle {
-  
+public class NewsArticle extends NewsArticleBase {
+
   @Id
-  @GeneratedValue
-  // 主键 ID（当前为自增 Long）
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_article_seq")
+  // 主键 ID：pooled 序列，一次取 50 个号段，批量插入时无需逐条往返取号
+  // 序列名与步长同 Hibernate 6 的默认值（news_article_seq, increment 50），已有库无需迁移
+  @SequenceGenerator(name = "news_article_seq", sequenceName = "news_article_seq", allocationSize = 50)
   Long id;
 
-  // 文章标题
-  String title;
-  // 原文链接（唯一去重键）
-  @Column(length = 1024)
-  String sourceURL;
-  // 来源名称（展示用）
-  String sourceName;
-  // 发布日期（ISO 8601 字符串）
-  String publishedAt;
-  // 抓取时间（ISO 8601 字符串）
-  String scrapedAt;
-  // 摘要（一句话，可为空）
-  String summary;
-  // 标签 JSON 字符串，可为空
-  String tags;
-  // 缩略图链接，可为空
-  String tumbnailURL;
-  // 分类（一级目录）
-  @Enumerated(EnumType.STRING)
-  NewsCategory category;
-  // 原文内容/摘要，可为空
-  @Lob
-  @Column(columnDefinition = "LONGTEXT")
-  String rawContent;
-
-  
+  // 插入前计算去重用的派生列（流水线中已算好的不重复计算）与标签集合
+  @PrePersist
+  void computeDedupeKeys() {
+    if (urlHash == null) {
+      urlHash = UrlNormalizer.hash(sourceURL);
+    }
+    if (titleFingerprint == null) {
+      titleFingerprint = TitleFingerprint.of(title);
+    }
+    if (tagSet == null || tagSet.isEmpty()) {
+      tagSet = ArticleTags.parse(tags);
+    }
+  }
 }
@@ -0,0 +1,86 @@
+package com.example.springboot3newsreader.models;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
+
+import com.example.springboot3newsreader.services.dedupe.TitleFingerprint;
+import com.example.springboot3newsreader.services.ingest.ArticleTags;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 文章的公共字段：活跃表 news_article（NewsArticle）与归档表 news_article_archive（ArchivedNewsArticle）列相同
+@MappedSuperclass
+@JsonPropertyOrder({ "id" })
+@Data
+@NoArgsConstructor
+public abstract class NewsArticleBase {
+
+  // 文章标题
+  String title;
+  // 原文链接（去重键，见 urlHash）
+  @Column(length = 1024)
+  String sourceURL;
+  // 来源名称（展示用）
+  String sourceName;
+  // 发布时间（UTC；JSON 中仍为 ISO 8601 字符串）
+  // 列名不沿用旧版本的字符串列 published_at / scraped_at，旧数据由 NewsArticleTimestampBackfill 解析回填
+  @Column(name = "published_time")
+  Instant publishedAt;
+  // 抓取时间（UTC）
+  @Column(name = "scraped_time")
+  Instant scrapedAt;
+  // 摘要（一句话，可为空）
+  String summary;
+  // 标签 JSON 字符串，可为空
+  String tags;
+  // 规范化后的标签（article_tag 表，主键 (article_id, tag)，另有 (tag, article_id) 索引），插入前由 tags 解析
+  // 只用于按标签搜索的半连接，不对外输出，默认懒加载；归档不搬动标签行，两张表按 id 共用
+  // 不建外键：归档后标签行仍按 id 归属归档表中的文章
+  @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @ElementCollection
+  @CollectionTable(name = "article_tag", joinColumns = @JoinColumn(name = "article_id"),
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+      indexes = @Index(name = "idx_article_tag_tag", columnList = "tag, article_id"))
+  @Column(name = "tag", length = ArticleTags.MAX_LENGTH, nullable = false)
+  Set<String> tagSet = new LinkedHashSet<>();
+  // 缩略图链接，可为空
+  String tumbnailURL;
+  // 分类（一级目录）
+  @Enumerated(EnumType.STRING)
+  NewsCategory category;
+  // 原文内容/摘要，可为空；存放在 news_article_content 分表（见 NewsArticleContentService），
+  // 列表与搜索默认不读取，详情或 includeContent=true 时才补上
+  @Transient
+  String rawContent;
+  // 跨来源报道聚类的簇 id（同一事件的多篇报道相同）；历史数据为空，视为自成一簇
+  Long clusterId;
+  // 规范化 sourceURL 的哈希（唯一索引），插入前自动计算，不对外输出
+  @JsonIgnore
+  @Column(length = 32)
+  String urlHash;
+
+  // 标题指纹（排序去重的 64 位词哈希，见 TitleFingerprint），插入前计算，不对外输出
+  @JsonIgnore
+  @Column(length = TitleFingerprint.MAX_TOKENS * 8)
+  byte[] titleFingerprint;
+}
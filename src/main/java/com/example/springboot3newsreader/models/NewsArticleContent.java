@@ -0,0 +1,57 @@
+package com.example.springboot3newsreader.models;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 文章原文（完整 HTML / 推文 JSON），与 NewsArticle 分表存放
+// 列表与搜索只读主表；详情（按 id 获取）或 includeContent=true 时再按 id 批量读取
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NewsArticleContent implements Persistable<Long> {
+
+  // 与 NewsArticle.id 相同（非自增）
+  @Id
+  Long articleId;
+
+  // 原文内容，可为空；库中为压缩后的二进制（见 CompressedTextConverter），读取实体时才解压
+  @Convert(converter = CompressedTextConverter.class)
+  @Column(columnDefinition = "LONGBLOB")
+  String content;
+
+  // 主键由调用方给定：saveAll 时直接 insert，不先按 id select 一次（merge）
+  @Transient
+  boolean persisted;
+
+  public NewsArticleContent(Long articleId, String content) {
+    this.articleId = articleId;
+    this.content = content;
+  }
+
+  @Override
+  public Long getId() {
+    return articleId;
+  }
+
+  @Override
+  public boolean isNew() {
+    return !persisted;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markPersisted() {
+    persisted = true;
+  }
+}
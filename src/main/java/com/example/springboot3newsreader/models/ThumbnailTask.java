@@ -4,7 +4,9 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,8 +19,9 @@ import lombok.NoArgsConstructor;
 public class ThumbnailTask {
 
   @Id
-  @GeneratedValue
-  // 任务主键 ID（自增）
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "thumbnail_task_seq")
+  // 任务主键 ID：pooled 序列（与 Hibernate 6 默认的 thumbnail_task_seq / increment 50 一致）
+  @SequenceGenerator(name = "thumbnail_task_seq", sequenceName = "thumbnail_task_seq", allocationSize = 50)
   Long id;
 
   // 关联的文章 ID（NewsArticle.id），用于补图时定位文章
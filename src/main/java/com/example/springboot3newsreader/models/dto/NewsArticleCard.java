@@ -0,0 +1,28 @@
+package com.example.springboot3newsreader.models.dto;
+
+import java.time.Instant;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.models.NewsCategory;
+
+// 列表 / 分类 / 搜索返回的文章卡片：只含卡片展示需要的列，由查询直接构造（select new），不经过持久化上下文
+// 字段名与 NewsArticle 的 JSON 相同，客户端无需改动；原文、去重键等不在其中
+public record NewsArticleCard(
+    Long id,
+    String title,
+    String sourceURL,
+    String sourceName,
+    Instant publishedAt,
+    Instant scrapedAt,
+    String summary,
+    String tags,
+    String tumbnailURL,
+    NewsCategory category,
+    Long clusterId) {
+
+  // 已在内存中的文章（如刚抓取入库的）转为卡片
+  public static NewsArticleCard of(NewsArticle a) {
+    return new NewsArticleCard(a.getId(), a.getTitle(), a.getSourceURL(), a.getSourceName(), a.getPublishedAt(),
+        a.getScrapedAt(), a.getSummary(), a.getTags(), a.getTumbnailURL(), a.getCategory(), a.getClusterId());
+  }
+}
@@ -17,4 +17,5 @@ public class NewsArticleSearchRequest {
     private String endDateTime; // ISO 8601 UTC, exclusive upper bound
     private String sortOrder; // latest, oldest
     private boolean includeContent = false; // default false
+    private boolean collapseClusters = false; // true: 同一报道簇只返回排序最靠前的一篇
 }
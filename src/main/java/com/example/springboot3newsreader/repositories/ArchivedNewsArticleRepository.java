@@ -0,0 +1,65 @@
+package com.example.springboot3newsreader.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.springboot3newsreader.models.ArchivedNewsArticle;
+
+public interface ArchivedNewsArticleRepository
+    extends JpaRepository<ArchivedNewsArticle, Long>, JpaSpecificationExecutor<ArchivedNewsArticle> {
+
+  // 按 id 分页（keyset）读取 [id, urlHash]，用于加载常驻 URL 索引
+  @Query("select a.id, a.urlHash from ArchivedNewsArticle a where a.id > :afterId and a.urlHash is not null order by a.id")
+  List<Object[]> findUrlHashesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+  @Query("select a.urlHash from ArchivedNewsArticle a where a.urlHash in :urlHashes")
+  List<String> findExistingUrlHashes(@Param("urlHashes") Collection<String> urlHashes);
+
+  // 把活跃表中的指定行整行复制到归档表（需在事务中与 deleteArchivedFromActive 一起执行）
+  @Modifying
+  @Query(value = "insert ignore into news_article_archive (id, title, sourceurl, source_name, published_time, scraped_time, "
+    + "summary, tags, tumbnailurl, category, cluster_id, url_hash, title_fingerprint) "
+    + "select id, title, sourceurl, source_name, published_time, scraped_time, "
+    + "summary, tags, tumbnailurl, category, cluster_id, url_hash, title_fingerprint "
+    + "from news_article where id in (:ids)", nativeQuery = true)
+  int copyFromActive(@Param("ids") Collection<Long> ids);
+
+  // 原生 SQL 删除：不经过实体，article_tag / news_article_content 按 id 保留给归档行使用
+  // 只删除已确认在归档表中的行：insert ignore 跳过的行（如 url_hash 与已归档文章冲突）留在活跃表，不会丢失
+  @Modifying
+  @Query(value = "delete from news_article where id in (:ids) "
+    + "and id in (select id from news_article_archive where id in (:ids))", nativeQuery = true)
+  int deleteArchivedFromActive(@Param("ids") Collection<Long> ids);
+
+  // 删除归档文章的标签行（归档时标签行不搬动，清空归档表前需先删除，否则成为孤儿行）
+  @Modifying
+  @Transactional
+  @Query(value = "delete from article_tag where article_id in (select id from news_article_archive)", nativeQuery = true)
+  int deleteArchivedTags();
+
+  // 清空归档表（实体为 @Immutable，不走 JPQL 批量删除）
+  @Modifying
+  @Transactional
+  @Query(value = "delete from news_article_archive", nativeQuery = true)
+  int deleteAllArchived();
+
+  // 单事务搬移一批文章，返回从活跃表删除的行数（没能复制到归档表的行保留在活跃表）
+  @Transactional
+  default int moveFromActive(Collection<Long> ids) {
+    int copied = copyFromActive(ids);
+    int deleted = deleteArchivedFromActive(ids);
+    if (deleted < ids.size()) {
+      System.err.println("[archive] " + (ids.size() - deleted) + " of " + ids.size()
+          + " articles were not copied to news_article_archive (copied " + copied + "), kept in news_article");
+    }
+    return deleted;
+  }
+}
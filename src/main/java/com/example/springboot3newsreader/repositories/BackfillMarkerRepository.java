@@ -0,0 +1,28 @@
+package com.example.springboot3newsreader.repositories;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+
+public interface BackfillMarkerRepository extends JpaRepository<BackfillMarker, String> {
+
+  // 读取失败按未完成处理：回填本身可以重跑，最多多扫一次
+  default boolean isDone(String name) {
+    try {
+      return existsById(name);
+    } catch (Exception e) {
+      System.err.println("[backfill] failed to read marker " + name + ": " + e.getMessage());
+      return false;
+    }
+  }
+
+  default void markDone(String name) {
+    try {
+      save(new BackfillMarker(name, Instant.now()));
+    } catch (Exception e) {
+      System.err.println("[backfill] failed to save marker " + name + ": " + e.getMessage());
+    }
+  }
+}
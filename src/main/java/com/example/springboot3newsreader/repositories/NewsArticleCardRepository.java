@@ -0,0 +1,15 @@
+package com.example.springboot3newsreader.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.springboot3newsreader.models.NewsArticleBase;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
+
+// 按 Specification 查询文章卡片（活跃表与归档表共用），只 select 卡片需要的列
+public interface NewsArticleCardRepository {
+
+  <T extends NewsArticleBase> List<NewsArticleCard> findCards(Class<T> type, Specification<T> spec, Sort sort);
+}
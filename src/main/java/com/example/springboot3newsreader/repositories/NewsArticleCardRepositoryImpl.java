@@ -0,0 +1,45 @@
+package com.example.springboot3newsreader.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.springboot3newsreader.models.NewsArticleBase;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+// 构造器投影（与 NewsArticleRepository.CARD_SELECT 的列相同），结果不是实体，不进入持久化上下文
+public class NewsArticleCardRepositoryImpl implements NewsArticleCardRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public <T extends NewsArticleBase> List<NewsArticleCard> findCards(Class<T> type, Specification<T> spec, Sort sort) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<NewsArticleCard> query = cb.createQuery(NewsArticleCard.class);
+    Root<T> root = query.from(type);
+    query.select(cb.construct(NewsArticleCard.class,
+        root.get("id"), root.get("title"), root.get("sourceURL"), root.get("sourceName"),
+        root.get("publishedAt"), root.get("scrapedAt"), root.get("summary"), root.get("tags"),
+        root.get("tumbnailURL"), root.get("category"), root.get("clusterId")));
+    if (spec != null) {
+      Predicate predicate = spec.toPredicate(root, query, cb);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+    }
+    if (sort != null && sort.isSorted()) {
+      query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    }
+    return entityManager.createQuery(query).getResultList();
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.springboot3newsreader.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.springboot3newsreader.models.NewsArticleContent;
+
+public interface NewsArticleContentRepository extends JpaRepository<NewsArticleContent, Long> {
+
+  // 删除指定来源前缀的文章的原文（需在删除文章之前执行）
+  @Modifying
+  @Transactional
+  @Query("delete from NewsArticleContent c where c.articleId in "
+    + "(select a.id from NewsArticle a where a.sourceName like concat(:prefix, '%'))")
+  int deleteBySourceNamePrefix(@Param("prefix") String prefix);
+
+  // 旧版本把原文存在 news_article.raw_content；该列不存在（新库）时查询会抛异常
+  @Query(value = "select max(id) from news_article where raw_content is not null", nativeQuery = true)
+  Long findMaxLegacyContentId();
+
+  // 按 id 区间把旧列复制到分表（insert ignore：中断后重跑不会重复）
+  // 在库内用 COMPRESS() 压缩，格式与 V4 迁移相同（CompressedTextConverter 版本 2）
+  @Modifying
+  @Transactional
+  @Query(value = "insert ignore into news_article_content (article_id, content) "
+    + "select id, concat(x'FF02', compress(raw_content)) from news_article where id > :fromId and id <= :toId and raw_content is not null",
+    nativeQuery = true)
+  int copyLegacyContent(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+  // 复制完成后清空旧列
+  @Modifying
+  @Transactional
+  @Query(value = "update news_article set raw_content = null where id > :fromId and id <= :toId and raw_content is not null",
+    nativeQuery = true)
+  int clearLegacyContent(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
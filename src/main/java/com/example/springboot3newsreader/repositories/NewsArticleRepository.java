@@ -1,24 +1,98 @@
 package com.example.springboot3newsreader.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
 
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>, JpaSpecificationExecutor<NewsArticle> {
+public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>, JpaSpecificationExecutor<NewsArticle>,
+    NewsArticleCardRepository {
+
+  // 文章卡片的构造器投影（与 NewsArticleCardRepositoryImpl 的列相同）
+  String CARD_SELECT = "select new com.example.springboot3newsreader.models.dto.NewsArticleCard("
+      + "a.id, a.title, a.sourceURL, a.sourceName, a.publishedAt, a.scrapedAt, a.summary, a.tags, "
+      + "a.tumbnailURL, a.category, a.clusterId) ";
+
   void deleteBySourceNameStartingWith(String prefix);
 
-  @Query("select a.sourceURL from NewsArticle a where a.sourceURL is not null")
-  List<String> findAllSourceUrls();
+  // 按 id 分页（keyset）读取 [id, sourceURL, urlHash]，用于加载常驻 URL 索引
+  @Query("select a.id, a.sourceURL, a.urlHash from NewsArticle a where a.id > :afterId and a.sourceURL is not null order by a.id")
+  List<Object[]> findSourceUrlsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+  // 按 id 分页（keyset）读取 [id, sourceName, titleFingerprint, title]，用于加载标题近似重复索引
+  @Query("select a.id, a.sourceName, a.titleFingerprint, a.title from NewsArticle a where a.id > :afterId and a.title is not null order by a.id")
+  List<Object[]> findTitlesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+  // 最近的文章 [id, title, summary, clusterId]（id 倒序），用于加载报道聚类索引
+  @Query("select a.id, a.title, a.summary, a.clusterId from NewsArticle a order by a.id desc")
+  List<Object[]> findRecentForClustering(Pageable pageable);
+
+  // 走 url_hash 唯一索引的批量存在性查询
+  @Query("select a.urlHash from NewsArticle a where a.urlHash in :urlHashes")
+  List<String> findExistingUrlHashes(@Param("urlHashes") Collection<String> urlHashes);
+
+  // 回填旧数据的 url_hash
+  @Modifying
+  @Transactional
+  @Query("update NewsArticle a set a.urlHash = :urlHash where a.id = :id and a.urlHash is null")
+  int updateUrlHash(@Param("id") Long id, @Param("urlHash") String urlHash);
+
+  // 回填旧数据的 title_fingerprint
+  @Modifying
+  @Transactional
+  @Query("update NewsArticle a set a.titleFingerprint = :fingerprint where a.id = :id and a.titleFingerprint is null")
+  int updateTitleFingerprint(@Param("id") Long id, @Param("fingerprint") byte[] fingerprint);
+
+  // 旧版本字符串时间列（published_at / scraped_at）中尚未回填的行 [id, published_at, scraped_at, sourceurl]
+  // 新库没有这两列，查询会抛异常
+  @Query(value = "select id, published_at, scraped_at, sourceurl from news_article where id > :afterId and published_time is null "
+    + "and (published_at is not null or scraped_at is not null) order by id limit :limit", nativeQuery = true)
+  List<Object[]> findLegacyTimestampsAfterId(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+  // 写入解析后的时间并清空旧的字符串列
+  @Modifying
+  @Transactional
+  @Query(value = "update news_article set published_time = :publishedAt, scraped_time = :scrapedAt, "
+    + "published_at = null, scraped_at = null where id = :id", nativeQuery = true)
+  int updateLegacyTimestamps(@Param("id") Long id, @Param("publishedAt") Instant publishedAt,
+      @Param("scrapedAt") Instant scrapedAt);
+
+  // 有 tags 字符串但还没有 article_tag 行的文章 [id, tags]（旧数据回填）
+  // 只由空白、分隔符、括号与引号组成的 tags（""、","、"[]" 等）解析不出标签，永远不会有 article_tag 行，需排除，否则每次启动都会重扫
+  @Query(value = "select a.id, a.tags from news_article a where a.id > :afterId and a.tags is not null "
+    + "and a.tags not regexp '^[][[:space:],，;；\"]*$' "
+    + "and not exists (select 1 from article_tag t where t.article_id = a.id) order by a.id limit :limit", nativeQuery = true)
+  List<Object[]> findUntaggedAfterId(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+  @Modifying
+  @Transactional
+  @Query(value = "insert ignore into article_tag (article_id, tag) values (:articleId, :tag)", nativeQuery = true)
+  int insertTag(@Param("articleId") Long articleId, @Param("tag") String tag);
+
+  // 最近的 [title, titleFingerprint]（id 倒序）
+  @Query("select a.title, a.titleFingerprint from NewsArticle a where a.sourceName = :sourceName and a.title is not null order by a.id desc")
+  List<Object[]> findRecentTitlesBySourceName(@Param("sourceName") String sourceName, Pageable pageable);
+
+  // 列表：全部文章的卡片（按 id 顺序）
+  @Query(CARD_SELECT + "from NewsArticle a order by a.id")
+  List<NewsArticleCard> findAllCards();
 
-  @Query("select a.title from NewsArticle a where a.sourceName = :sourceName and a.title is not null order by a.id desc")
-  List<String> findRecentTitlesBySourceName(@Param("sourceName") String sourceName, Pageable pageable);
+  // 分类列表：该分类文章的卡片（最新的在前）
+  @Query(CARD_SELECT + "from NewsArticle a where a.category = :category order by a.id desc")
+  List<NewsArticleCard> findCardsByCategory(@Param("category") NewsCategory category);
 
-  List<NewsArticle> findByCategoryOrderByIdDesc(NewsCategory category);
+  // 发布时间早于 cutoff 的文章 id（最旧的在前），用于归档
+  @Query("select a.id from NewsArticle a where a.publishedAt < :cutoff order by a.publishedAt")
+  List<Long> findIdsPublishedBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
 }
@@ -0,0 +1,79 @@
+package com.example.springboot3newsreader.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.springboot3newsreader.repositories.ArchivedNewsArticleRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+
+// 文章保留期与归档：活跃表 news_article 只保留最近 retention-days 天（按发布时间）的文章
+// 1) 定时任务按 batch-size 分批，把更早的文章整行搬到压缩的 news_article_archive（复制 + 删除在同一事务）
+// 2) 列表、分类、去重相关查询只读活跃表；搜索的 startDateTime 早于保留期起点时才同时查询归档表
+// 3) 归档表的 url_hash 同样参与 URL 去重（见 ArticleUrlIndex），旧链接不会被重新入库
+@Service
+public class ArticleArchiveService {
+
+  @Autowired
+  NewsArticleRepository newsArticleRepository;
+  @Autowired
+  ArchivedNewsArticleRepository archivedNewsArticleRepository;
+
+  @Value("${app.archive.enabled:true}")
+  private boolean enabled;
+  @Value("${app.archive.retention-days:90}")
+  private int retentionDays;
+  @Value("${app.archive.batch-size:1000}")
+  private int batchSize;
+
+  // 保留期起点：发布时间早于它的文章（将）在归档表中；未启用归档时返回 null
+  public Instant cutoff() {
+    if (!enabled || retentionDays <= 0) {
+      return null;
+    }
+    return Instant.now().minus(Duration.ofDays(retentionDays));
+  }
+
+  // 搜索的时间范围是否需要查询归档表
+  public boolean reachesArchive(Instant startDateTime) {
+    Instant cutoff = cutoff();
+    return cutoff != null && startDateTime != null && startDateTime.isBefore(cutoff);
+  }
+
+  @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+      initialDelayString = "${app.archive.initial-delay-ms:300000}")
+  public void archiveExpired() {
+    Instant cutoff = cutoff();
+    if (cutoff == null) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    long moved = 0;
+    try {
+      while (true) {
+        List<Long> ids = newsArticleRepository.findIdsPublishedBefore(cutoff,
+            PageRequest.of(0, Math.max(1, batchSize)));
+        if (ids.isEmpty()) {
+          break;
+        }
+        int batch = archivedNewsArticleRepository.moveFromActive(ids);
+        if (batch == 0) {
+          break;
+        }
+        moved += batch;
+      }
+    } catch (Exception e) {
+      System.err.println("[archive] failed to archive articles: " + e.getMessage());
+    }
+    if (moved > 0) {
+      System.out.println("[archive] moved " + moved + " articles published before " + cutoff
+          + " to news_article_archive in " + (System.currentTimeMillis() - start) + "ms");
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.springboot3newsreader.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+import com.example.springboot3newsreader.repositories.BackfillMarkerRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.services.ingest.ArticleTags;
+
+// 旧数据回填：把 news_article.tags 字符串（JSON 数组或逗号分隔）拆成 article_tag 行
+// 启动后按 id 分页，只处理还没有任何 article_tag 行的文章；新文章在插入时由 NewsArticle.tagSet 写入
+// 整轮跑完后写入完成标记（BackfillMarker），之后启动不再扫描
+@Service
+public class ArticleTagBackfill {
+
+  @Autowired
+  NewsArticleRepository newsArticleRepository;
+
+  @Autowired
+  BackfillMarkerRepository backfillMarkerRepository;
+
+  @Value("${app.tags.backfill-page-size:5000}")
+  private int pageSize;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    if (backfillMarkerRepository.isDone(BackfillMarker.ARTICLE_TAG)) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    long afterId = 0;
+    long articles = 0;
+    long inserted = 0;
+    try {
+      while (true) {
+        List<Object[]> rows = newsArticleRepository.findUntaggedAfterId(afterId, Math.max(1, pageSize));
+        if (rows.isEmpty()) {
+          break;
+        }
+        for (Object[] row : rows) {
+          afterId = ((Number) row[0]).longValue();
+          for (String tag : ArticleTags.parse((String) row[1])) {
+            inserted += newsArticleRepository.insertTag(afterId, tag);
+          }
+          articles++;
+        }
+      }
+      backfillMarkerRepository.markDone(BackfillMarker.ARTICLE_TAG);
+    } catch (Exception e) {
+      System.err.println("[tags] failed to backfill article_tag after id " + afterId + ": " + e.getMessage());
+    }
+    if (inserted > 0) {
+      System.out.println("[tags] article_tag backfilled: " + inserted + " tags for " + articles + " articles in "
+          + (System.currentTimeMillis() - start) + "ms");
+    }
+  }
+}
@@ -2,6 +2,10 @@ package com.example.springboot3newsreader.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
@@ -10,7 +14,8 @@ import org.springframework.stereotype.Service;
 import com.example.springboot3newsreader.models.FeedItem;
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
-import java.util.stream.Collectors;
+import com.example.springboot3newsreader.services.ingest.IngestExecutor;
+import com.example.springboot3newsreader.services.ingest.IngestStages;
 import org.springframework.beans.factory.annotation.Value;
 
 @Service
@@ -22,6 +27,10 @@ public class IngestPipelineService {
   private WebIngestService webIngestService;
   @Autowired
   private TwitterIngestService twitterIngestService;
+  @Autowired
+  private IngestExecutor ingestExecutor;
+  @Autowired
+  private IngestStages ingestStages;
 
   @Value("${app.feature.web-ingest.enabled:true}")
   private boolean webIngestEnabled;
@@ -29,51 +38,89 @@ public class IngestPipelineService {
   private boolean twitterIngestEnabled;
 
   public List<NewsArticle> ingestFeed(FeedItem feed) throws Exception {
+    try {
+      return startFeed(feed).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      while (cause instanceof CompletionException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
+  // 单个源的完整流程：fetch / parse 阶段在这里发起，之后交给 IngestStages（dedupe -> persist -> enrich）
+  // RSS：共用 HttpClient 异步请求，回调里流式解析
+  // WEB / TWITTER：阻塞抓取放到 IngestExecutor，解析完成即归还抓取许可，再排队入库
+  private CompletableFuture<List<NewsArticle>> startFeed(FeedItem feed) {
     if (feed == null || feed.getSourceType() == null) {
-      return new ArrayList<>();
+      return CompletableFuture.completedFuture(new ArrayList<>());
     }
     String type = feed.getSourceType();
-    NewsCategory category = feed.getCategory();
-    if (category == null) {
-      category = NewsCategory.UNCATEGORIZED;
-    }
     if ("RSS".equals(type)) {
       // Use logic with Etag/Last-Modified support
-      return rssIngestService.ingest(feed);
+      return rssIngestService.fetchAndIngest(feed);
     }
     if ("WEB".equals(type)) {
       if (!webIngestEnabled) {
         System.out.println("Skipping WEB feed ingestion (disabled by config): " + feed.getName());
-        return new ArrayList<>();
+        return CompletableFuture.completedFuture(new ArrayList<>());
       }
-      return webIngestService.ingest(feed.getUrl(), feed.getName(), category);
+      NewsCategory category = feed.getCategory() != null ? feed.getCategory() : NewsCategory.UNCATEGORIZED;
+      return ingestExecutor.submit(IngestExecutor.hostKey(feed.getUrl()),
+              () -> webIngestService.fetchArticles(feed.getUrl(), feed.getName(), category))
+          .thenCompose(parsed -> ingestStages.submit(feed.getName(), parsed, true, null));
     }
     if ("TWITTER".equals(type)) {
       if (!twitterIngestEnabled) {
         System.out.println("Skipping TWITTER feed ingestion (disabled by config): " + feed.getName());
-        return new ArrayList<>();
+        return CompletableFuture.completedFuture(new ArrayList<>());
       }
-      return twitterIngestService.ingest(feed);
+      return ingestExecutor.submit(IngestExecutor.hostKey(feed.getUrl()),
+              () -> twitterIngestService.fetchArticles(feed))
+          .thenCompose(parsed -> ingestStages.submit(feed.getName(), parsed, false, null));
     }
-    return new ArrayList<>();
+    return CompletableFuture.completedFuture(new ArrayList<>());
   }
 
   public List<NewsArticle> ingestAll(List<FeedItem> feeds) {
+    return ingestAll(feeds, null);
+  }
+
+  // onFeedDone：每个源抓取结束后回调一次（失败时 articles 为 null），用于更新调度状态
+  public List<NewsArticle> ingestAll(List<FeedItem> feeds, BiConsumer<FeedItem, List<NewsArticle>> onFeedDone) {
     if (feeds == null || feeds.isEmpty()) {
       return new ArrayList<>();
     }
-    // 使用并行流加速抓取 (多线程并发执行)
-    // 注意：ArrayList 非线程安全，使用 Collections.synchronizedList 或 collect
-    return feeds.parallelStream()
-        .flatMap(feed -> {
-          try {
-            return ingestFeed(feed).stream();
-          } catch (Exception e) {
-            // ignore failure
-            return java.util.stream.Stream.empty();
-          }
-        })
-        .collect(Collectors.toList());
+    // 所有源先全部发起；抓取并发受 IngestExecutor 的许可约束，入库由 IngestStages 跨源攒批
+    List<CompletableFuture<List<NewsArticle>>> tasks = new ArrayList<>();
+    for (FeedItem feed : feeds) {
+      if (feed == null) {
+        continue;
+      }
+      tasks.add(startFeed(feed).handle((saved, e) -> {
+        notifyFeedDone(onFeedDone, feed, e == null ? saved : null);
+        return e == null ? saved : new ArrayList<NewsArticle>();
+      }));
+    }
+
+    List<NewsArticle> results = new ArrayList<>();
+    for (CompletableFuture<List<NewsArticle>> task : tasks) {
+      results.addAll(task.join());
+    }
+    return results;
+  }
+
+  private void notifyFeedDone(BiConsumer<FeedItem, List<NewsArticle>> onFeedDone, FeedItem feed,
+      List<NewsArticle> saved) {
+    if (onFeedDone == null || feed == null) {
+      return;
+    }
+    try {
+      onFeedDone.accept(feed, saved);
+    } catch (Exception e) {
+      System.err.println("[ingest] feed callback failed for " + feed.getName() + ": " + e.getMessage());
+    }
   }
 
   @Async
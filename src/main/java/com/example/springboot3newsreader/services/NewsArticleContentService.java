@@ -0,0 +1,157 @@
+package com.example.springboot3newsreader.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.models.NewsArticleContent;
+import com.example.springboot3newsreader.repositories.BackfillMarkerRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleContentRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+
+// 文章原文的读写：NewsArticle.rawContent 不再映射到主表，由这里写入 / 读取 news_article_content
+// 1) 写：文章与原文在同一事务内批量插入（文章先拿到序列 id）
+// 2) 读：只在详情或 includeContent=true 时按 id 批量补上 rawContent（库中为压缩数据，读取实体时才解压）
+// 3) 启动时把旧版本 news_article.raw_content 列中的数据按 id 区间搬到分表并清空旧列
+@Service
+public class NewsArticleContentService {
+
+  // 单次 id in (...) 查询的上限
+  private static final int QUERY_CHUNK = 500;
+
+  @Autowired
+  NewsArticleRepository newsArticleRepository;
+  @Autowired
+  NewsArticleContentRepository newsArticleContentRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  @Autowired
+  BackfillMarkerRepository backfillMarkerRepository;
+
+  @Value("${app.content.migrate-page-size:5000}")
+  private int migratePageSize;
+
+  // 保存新文章及其原文，返回实际入库的文章
+  // 整批在一个事务内插入；url_hash 唯一索引冲突（多实例并发或漏判）时整批回滚，
+  // 再逐条各自一个事务重试并跳过冲突的文章：返回值、原文、标签与后续补图任务都只包含真正入库的行
+  // 调用方不能已处于事务中（否则冲突会把外层事务标记为回滚）
+  public List<NewsArticle> saveAll(List<NewsArticle> articles) {
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    try {
+      return tx.execute(status -> insertAll(articles));
+    } catch (DataIntegrityViolationException e) {
+      System.out.println("[content] batch insert hit a unique key, retrying " + articles.size()
+          + " articles one by one: " + e.getMostSpecificCause().getMessage());
+    }
+    List<NewsArticle> saved = new ArrayList<>();
+    for (NewsArticle a : articles) {
+      resetAfterRollback(a);
+      try {
+        tx.execute(status -> insertAll(List.of(a)));
+        saved.add(a);
+      } catch (DataIntegrityViolationException e) {
+        resetAfterRollback(a);
+        System.out.println("[content] skipped duplicate article: " + a.getSourceURL());
+      }
+    }
+    return saved;
+  }
+
+  // 回滚后实体仍带着已分配的 id 与旧会话的集合包装，清掉后才能作为新实体重新插入
+  private void resetAfterRollback(NewsArticle a) {
+    a.setId(null);
+    a.setTagSet(new LinkedHashSet<>(a.getTagSet()));
+  }
+
+  private List<NewsArticle> insertAll(List<NewsArticle> articles) {
+    List<NewsArticle> saved = newsArticleRepository.saveAll(articles);
+    List<NewsArticleContent> contents = new ArrayList<>();
+    for (NewsArticle a : saved) {
+      if (a.getId() != null && a.getRawContent() != null) {
+        contents.add(new NewsArticleContent(a.getId(), a.getRawContent()));
+      }
+    }
+    if (!contents.isEmpty()) {
+      newsArticleContentRepository.saveAll(contents);
+    }
+    return saved;
+  }
+
+  // 为单篇文章补上原文
+  public NewsArticle fillContent(NewsArticle article) {
+    if (article != null && article.getId() != null) {
+      newsArticleContentRepository.findById(article.getId())
+          .ifPresent(c -> article.setRawContent(c.getContent()));
+    }
+    return article;
+  }
+
+  // 为一批文章补上原文（按 id 分块批量查询）
+  public void fillContent(List<NewsArticle> articles) {
+    Map<Long, NewsArticle> byId = new HashMap<>();
+    for (NewsArticle a : articles) {
+      if (a.getId() != null) {
+        byId.put(a.getId(), a);
+      }
+    }
+    List<Long> ids = new ArrayList<>(byId.keySet());
+    for (int i = 0; i < ids.size(); i += QUERY_CHUNK) {
+      List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + QUERY_CHUNK));
+      for (NewsArticleContent c : newsArticleContentRepository.findAllById(chunk)) {
+        NewsArticle a = byId.get(c.getArticleId());
+        if (a != null) {
+          a.setRawContent(c.getContent());
+        }
+      }
+    }
+  }
+
+  // 旧数据迁移：news_article.raw_content -> news_article_content
+  // 每个区间先复制再清空，中断后重启会从剩余的行继续；全部搬完后写入完成标记，之后启动不再扫描
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrateLegacyContent() {
+    if (backfillMarkerRepository.isDone(BackfillMarker.RAW_CONTENT)) {
+      return;
+    }
+    Long maxId;
+    try {
+      maxId = newsArticleContentRepository.findMaxLegacyContentId();
+    } catch (Exception e) {
+      // 新库没有 raw_content 列
+      backfillMarkerRepository.markDone(BackfillMarker.RAW_CONTENT);
+      return;
+    }
+    if (maxId == null) {
+      backfillMarkerRepository.markDone(BackfillMarker.RAW_CONTENT);
+      return;
+    }
+    long start = System.currentTimeMillis();
+    long step = Math.max(1, migratePageSize);
+    long copied = 0;
+    try {
+      for (long from = 0; from < maxId; from += step) {
+        long to = Math.min(maxId, from + step);
+        copied += newsArticleContentRepository.copyLegacyContent(from, to);
+        newsArticleContentRepository.clearLegacyContent(from, to);
+      }
+      System.out.println("[content] migrated raw_content to news_article_content: " + copied + " rows in "
+          + (System.currentTimeMillis() - start) + "ms");
+      backfillMarkerRepository.markDone(BackfillMarker.RAW_CONTENT);
+    } catch (Exception e) {
+      System.err.println("[content] failed to migrate raw_content: " + e.getMessage());
+    }
+  }
+}
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,72 +13,96 @@ import org.springframework.stereotype.Service;
 
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.services.dedupe.ArticleUrlIndex;
+import com.example.springboot3newsreader.services.dedupe.TitleFingerprint;
+import com.example.springboot3newsreader.services.dedupe.TitleLshIndex;
+import com.example.springboot3newsreader.services.dedupe.UrlNormalizer;
 
 @Service
 public class NewsArticleDedupeService {
 
+  // 仅在标题索引加载完成前使用
   private static final int TITLE_LOOKBACK = 500;
   private static final double TITLE_SIM_THRESHOLD = 0.9;
 
   @Autowired
   private NewsArticleRepository newsArticleRepository;
+  @Autowired
+  private ArticleUrlIndex articleUrlIndex;
+  @Autowired
+  private TitleLshIndex titleLshIndex;
 
   public List<NewsArticle> filterNewArticles(List<NewsArticle> candidates) {
     if (candidates == null || candidates.isEmpty()) {
       return new ArrayList<>();
     }
 
-    Set<String> existingUrls = new HashSet<>();
-    List<String> urls = newsArticleRepository.findAllSourceUrls();
-    if (urls != null) {
-      existingUrls.addAll(urls);
-    }
-
-    Map<String, List<Set<String>>> titleTokensBySource = new HashMap<>();
-    Set<String> sourceNames = new HashSet<>();
+    // 按规范化 URL 的哈希去重：只查询本批候选是否已存在（常驻索引 + url_hash IN 批量确认），不再整列读取
+    List<String> candidateHashes = new ArrayList<>();
     for (NewsArticle a : candidates) {
-      if (a.getSourceName() != null) {
-        sourceNames.add(a.getSourceName());
+      if (a.getUrlHash() == null) {
+        a.setUrlHash(UrlNormalizer.hash(a.getSourceURL()));
       }
+      candidateHashes.add(a.getUrlHash());
     }
-    for (String source : sourceNames) {
-      List<String> titles = newsArticleRepository.findRecentTitlesBySourceName(
-        source, PageRequest.of(0, TITLE_LOOKBACK));
-      List<Set<String>> tokens = new ArrayList<>();
-      if (titles != null) {
-        for (String t : titles) {
-          Set<String> tok = tokenizeTitle(t);
-          if (!tok.isEmpty()) {
-            tokens.add(tok);
+    Set<String> existingHashes = new HashSet<>(articleUrlIndex.findExisting(candidateHashes));
+
+    // 标题近似重复：索引就绪时只与同来源的 LSH 候选比较（覆盖每个来源最近的 max-titles-per-source 条）；
+    // 索引加载完成前退回到每个来源最近 TITLE_LOOKBACK 条标题。本批已通过的标题也参与比较
+    boolean useIndex = titleLshIndex.isReady();
+    Map<String, List<long[]>> titleTokensBySource = new HashMap<>();
+    if (!useIndex) {
+      Set<String> sourceNames = new HashSet<>();
+      for (NewsArticle a : candidates) {
+        if (a.getSourceName() != null) {
+          sourceNames.add(a.getSourceName());
+        }
+      }
+      for (String source : sourceNames) {
+        List<Object[]> rows = newsArticleRepository.findRecentTitlesBySourceName(
+          source, PageRequest.of(0, TITLE_LOOKBACK));
+        List<long[]> tokens = new ArrayList<>();
+        if (rows != null) {
+          for (Object[] row : rows) {
+            // 优先使用已存的指纹，旧数据（尚未回填）才分词
+            long[] tok = row[1] != null ? TitleFingerprint.decode((byte[]) row[1]) : TitleFingerprint.tokens((String) row[0]);
+            if (tok.length > 0) {
+              tokens.add(tok);
+            }
           }
         }
+        titleTokensBySource.put(source, tokens);
       }
-      titleTokensBySource.put(source, tokens);
     }
 
     List<NewsArticle> result = new ArrayList<>();
     for (NewsArticle a : candidates) {
-      String url = a.getSourceURL();
-      if (url != null && existingUrls.contains(url)) {
+      String urlHash = a.getUrlHash();
+      if (urlHash != null && existingHashes.contains(urlHash)) {
         continue;
       }
       String source = a.getSourceName();
       if (source == null) {
         source = "";
       }
-      Set<String> tokens = tokenizeTitle(a.getTitle());
-      if (!tokens.isEmpty()) {
-        List<Set<String>> existingTokens = titleTokensBySource.get(source);
+      // 候选只分词一次，指纹随文章入库
+      long[] tokens = TitleFingerprint.tokens(a.getTitle());
+      a.setTitleFingerprint(tokens.length == 0 ? null : TitleFingerprint.encode(tokens));
+      if (tokens.length > 0) {
+        if (useIndex && titleLshIndex.containsSimilar(source, tokens, TITLE_SIM_THRESHOLD)) {
+          continue;
+        }
+        List<long[]> existingTokens = titleTokensBySource.get(source);
         if (existingTokens != null && isSimilarToAny(tokens, existingTokens)) {
           continue;
         }
       }
 
       result.add(a);
-      if (url != null) {
-        existingUrls.add(url);
+      if (urlHash != null) {
+        existingHashes.add(urlHash);
       }
-      if (!tokens.isEmpty()) {
+      if (tokens.length > 0) {
         titleTokensBySource.computeIfAbsent(source, k -> new ArrayList<>()).add(tokens);
       }
     }
@@ -87,46 +110,12 @@ public class NewsArticleDedupeService {
     return result;
   }
 
-  private boolean isSimilarToAny(Set<String> tokens, List<Set<String>> existingTokens) {
-    for (Set<String> other : existingTokens) {
-      if (jaccard(tokens, other) >= TITLE_SIM_THRESHOLD) {
+  private boolean isSimilarToAny(long[] tokens, List<long[]> existingTokens) {
+    for (long[] other : existingTokens) {
+      if (TitleFingerprint.jaccard(tokens, other) >= TITLE_SIM_THRESHOLD) {
         return true;
       }
     }
     return false;
   }
-
-  private double jaccard(Set<String> a, Set<String> b) {
-    if (a.isEmpty() || b.isEmpty()) {
-      return 0.0;
-    }
-    int inter = 0;
-    for (String s : a) {
-      if (b.contains(s)) {
-        inter++;
-      }
-    }
-    int union = a.size() + b.size() - inter;
-    return union == 0 ? 0.0 : (double) inter / (double) union;
-  }
-
-  private Set<String> tokenizeTitle(String title) {
-    Set<String> tokens = new HashSet<>();
-    if (title == null) {
-      return tokens;
-    }
-    String normalized = title.toLowerCase(Locale.ROOT)
-      .replaceAll("[\\p{Punct}]+", " ")
-      .replaceAll("\\s+", " ")
-      .trim();
-    if (normalized.isEmpty()) {
-      return tokens;
-    }
-    for (String part : normalized.split(" ")) {
-      if (!part.isBlank()) {
-        tokens.add(part);
-      }
-    }
-    return tokens;
-  }
 }
@@ -3,9 +3,14 @@ package com.example.springboot3newsreader.services;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.regex.Pattern;
 
@@ -13,16 +18,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.springboot3newsreader.models.ArchivedNewsArticle;
 import com.example.springboot3newsreader.models.FeedItem;
 import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.models.NewsArticleBase;
+import com.example.springboot3newsreader.repositories.ArchivedNewsArticleRepository;
 import com.example.springboot3newsreader.repositories.FeedItemRepository;
 import com.example.springboot3newsreader.models.NewsCategory;
+import com.example.springboot3newsreader.models.dto.NewsArticleCard;
 import com.example.springboot3newsreader.models.dto.NewsArticleSearchRequest;
 
+import com.example.springboot3newsreader.repositories.NewsArticleContentRepository;
 import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.services.ingest.ArticleTags;
+import com.example.springboot3newsreader.services.ingest.FeedPollScheduler;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -32,16 +46,42 @@ public class NewsArticleService {
   @Autowired
   NewsArticleRepository newsArticleRepository;
   @Autowired
+  NewsArticleContentService newsArticleContentService;
+  @Autowired
+  NewsArticleContentRepository newsArticleContentRepository;
+  @Autowired
+  ArchivedNewsArticleRepository archivedNewsArticleRepository;
+  @Autowired
+  ArticleArchiveService articleArchiveService;
+  @Autowired
   FeedItemRepository feedItemRepository;
   @Autowired
   IngestPipelineService ingestPipelineService;
+  @Autowired
+  FeedPollScheduler feedPollScheduler;
+
+  // 列表 / 搜索 / 详情都是只读事务，配置了从库时由 ReadWriteRoutingDataSource 路由到从库
+  // 列表与分类只查卡片需要的列（NewsArticleCard），不加载实体；collapse=true 时同一报道簇只保留一篇
+  @Transactional(readOnly = true)
+  public List<NewsArticleCard> getAllCards(boolean collapse) {
+    List<NewsArticleCard> all = newsArticleRepository.findAllCards();
+    return collapse ? collapseClusters(all) : all;
+  }
 
-  public List<NewsArticle> getAll() {
-    return newsArticleRepository.findAll();
+  @Transactional(readOnly = true)
+  public List<NewsArticleCard> getCardsByCategory(NewsCategory category, boolean collapse) {
+    List<NewsArticleCard> cards = newsArticleRepository.findCardsByCategory(category);
+    return collapse ? collapseClusters(cards) : cards;
   }
 
+  // 详情：补上分表中的原文；活跃表没有时再查归档表
+  @Transactional(readOnly = true)
   public Optional<NewsArticle> getById(Long id) {
-    return newsArticleRepository.findById(id);
+    Optional<NewsArticle> article = newsArticleRepository.findById(id);
+    if (article.isEmpty()) {
+      article = archivedNewsArticleRepository.findById(id).map(ArchivedNewsArticle::toNewsArticle);
+    }
+    return article.map(newsArticleContentService::fillContent);
   }
 
   public NewsArticle save(NewsArticle newsArticle) {
@@ -49,16 +89,36 @@ public class NewsArticleService {
   }
 
   public List<NewsArticle> saveAll(List<NewsArticle> newsArticles) {
-    return newsArticleRepository.saveAll(newsArticles);
+    return newsArticleContentService.saveAll(newsArticles);
   }
 
   @Transactional
   public void deleteBySourceNamePrefix(String prefix) {
+    newsArticleContentRepository.deleteBySourceNamePrefix(prefix);
     newsArticleRepository.deleteBySourceNameStartingWith(prefix);
   }
 
-  public List<NewsArticle> refreshFromRssFeeds() {
+  // 手动刷新：抓取全部已启用的源（抓取结果同样计入自适应调度）
+  public List<NewsArticleCard> refreshFromRssFeeds() {
     // 1) 取所有已启用的 RSS/WEB/TWITTER 源
+    List<FeedItem> feeds = enabledFeeds();
+    // 2) 走统一 ingest pipeline（与 feeds/new 一致）
+    List<NewsArticle> results = ingestPipelineService.ingestAll(feeds, feedPollScheduler::recordPoll);
+    // 只返回卡片，不返回大内容，节省流量
+    return results.stream().map(NewsArticleCard::of).collect(Collectors.toList());
+  }
+
+  // 定时 tick：只抓 nextPollAt 已到期的源
+  public List<NewsArticle> refreshDueFeeds() {
+    List<FeedItem> due = feedPollScheduler.dueFeeds(enabledFeeds());
+    if (due.isEmpty()) {
+      return new ArrayList<>();
+    }
+    System.out.println("[schedule] due feeds: " + due.size());
+    return ingestPipelineService.ingestAll(due, feedPollScheduler::recordPoll);
+  }
+
+  private List<FeedItem> enabledFeeds() {
     List<FeedItem> allFeeds = feedItemRepository.findAll();
     List<FeedItem> feeds = new ArrayList<>();
     for (FeedItem feed : allFeeds) {
@@ -71,36 +131,134 @@ public class NewsArticleService {
         feeds.add(feed);
       }
     }
-    // 2) 走统一 ingest pipeline（与 feeds/new 一致）
-    // 2) 走统一 ingest pipeline（与 feeds/new 一致）
-    List<NewsArticle> results = ingestPipelineService.ingestAll(feeds);
-    // 默认不返回大内容，节省流量
-    results.forEach(a -> a.setRawContent(null));
-    return results;
+    return feeds;
   }
 
+  // includeContent=true：返回完整文章并补上原文
+  @Transactional(readOnly = true)
   public List<NewsArticle> search(NewsArticleSearchRequest request) {
+    SearchCriteria criteria = parseCriteria(request);
+
+    List<NewsArticle> candidates = newsArticleRepository.findAll(buildSpec(criteria), criteria.sort());
+    // 时间范围早于保留期起点时，同时查询归档表，合并后按同样的顺序排列
+    if (articleArchiveService.reachesArchive(criteria.startDateTime())) {
+      List<NewsArticle> archived = new ArrayList<>();
+      for (ArchivedNewsArticle a : archivedNewsArticleRepository.findAll(
+          this.<ArchivedNewsArticle>buildSpec(criteria), criteria.sort())) {
+        archived.add(a.toNewsArticle());
+      }
+      candidates = mergeArchived(candidates, archived, NewsArticle::getPublishedAt, criteria.sort());
+    }
+
+    List<NewsArticle> results = filterAndCollapse(candidates, criteria, NewsArticle::getTitle,
+        NewsArticle::getSummary, NewsArticle::getClusterId, NewsArticle::getId);
+
+    // 原文单独存放在分表，只在请求时读取
+    if (request.isIncludeContent()) {
+      newsArticleContentService.fillContent(results);
+    }
+
+    return results;
+  }
+
+  // 默认搜索：只查卡片需要的列（构造器投影），不加载实体、不读原文
+  @Transactional(readOnly = true)
+  public List<NewsArticleCard> searchCards(NewsArticleSearchRequest request) {
+    SearchCriteria criteria = parseCriteria(request);
+
+    List<NewsArticleCard> candidates = newsArticleRepository.findCards(NewsArticle.class,
+        buildSpec(criteria), criteria.sort());
+    if (articleArchiveService.reachesArchive(criteria.startDateTime())) {
+      List<NewsArticleCard> archived = newsArticleRepository.findCards(ArchivedNewsArticle.class,
+          buildSpec(criteria), criteria.sort());
+      candidates = mergeArchived(candidates, archived, NewsArticleCard::publishedAt, criteria.sort());
+    }
+
+    return filterAndCollapse(candidates, criteria, NewsArticleCard::title, NewsArticleCard::summary,
+        NewsArticleCard::clusterId, NewsArticleCard::id);
+  }
+
+  // 解析后的搜索条件：粗筛条件下推到 SQL，精确的关键词匹配在内存中完成
+  private record SearchCriteria(
+      NewsArticleSearchRequest request,
+      Instant startDateTime,
+      Instant endDateTime,
+      List<List<String>> preciseKeywordGroups,
+      String preciseKeyword,
+      List<List<String>> coarseKeywordGroups,
+      String coarseKeyword,
+      Set<String> tags,
+      Sort sort) {
+  }
+
+  private SearchCriteria parseCriteria(NewsArticleSearchRequest request) {
     Instant startDateTime = parseUtcDateTimeOrNull(request.getStartDateTime(), "startDateTime");
     Instant endDateTime = parseUtcDateTimeOrNull(request.getEndDateTime(), "endDateTime");
     List<List<String>> preciseKeywordGroups = normalizeKeywordGroups(request.getKeywordGroups());
     String preciseKeyword = normalizeKeyword(request.getKeyword());
     List<List<String>> coarseKeywordGroups = buildCoarseKeywordGroups(preciseKeywordGroups, request.getGroupMode());
     String coarseKeyword = buildCoarseKeyword(preciseKeyword);
+    Set<String> tags = normalizeTags(request.getTags());
+
+    Sort sort = Sort.by(Sort.Direction.DESC, "publishedAt");
+    if ("oldest".equalsIgnoreCase(request.getSortOrder())) {
+      sort = Sort.by(Sort.Direction.ASC, "publishedAt");
+    }
+    return new SearchCriteria(request, startDateTime, endDateTime, preciseKeywordGroups, preciseKeyword,
+        coarseKeywordGroups, coarseKeyword, tags, sort);
+  }
+
+  private <T> List<T> mergeArchived(List<T> active, List<T> archived, Function<T, Instant> publishedAt, Sort sort) {
+    if (archived.isEmpty()) {
+      return active;
+    }
+    List<T> merged = new ArrayList<>(active);
+    merged.addAll(archived);
+    merged.sort(publishedAtOrder(sort, publishedAt));
+    return merged;
+  }
 
-    Specification<NewsArticle> spec = (root, query, cb) -> {
+  private <T> List<T> filterAndCollapse(
+      List<T> candidates,
+      SearchCriteria criteria,
+      Function<T, String> title,
+      Function<T, String> summary,
+      Function<T, Long> clusterId,
+      Function<T, Long> id) {
+    List<T> results = candidates.stream()
+        .filter(a -> matchesKeywordRequestPrecisely(title.apply(a), summary.apply(a),
+            criteria.preciseKeywordGroups(), criteria.preciseKeyword(), criteria.request().getGroupMode()))
+        .collect(Collectors.toList());
+
+    // 多个来源报道同一事件时只返回排序最靠前的一篇
+    if (criteria.request().isCollapseClusters()) {
+      results = collapseClusters(results, clusterId, id);
+    }
+    return results;
+  }
+
+  // 活跃表与归档表列相同，共用同一个查询条件
+  private <T extends NewsArticleBase> Specification<T> buildSpec(SearchCriteria criteria) {
+    NewsArticleSearchRequest request = criteria.request();
+    List<List<String>> coarseKeywordGroups = criteria.coarseKeywordGroups();
+    String coarseKeyword = criteria.coarseKeyword();
+    Set<String> tags = criteria.tags();
+    Instant startDateTime = criteria.startDateTime();
+    Instant endDateTime = criteria.endDateTime();
+    return (root, query, cb) -> {
       List<Predicate> predicates = new ArrayList<>();
 
-      // 1. Category
+      // 1. 分类
       if (request.getCategory() != null && !request.getCategory().isBlank()) {
         try {
           NewsCategory cat = NewsCategory.valueOf(request.getCategory().toUpperCase());
           predicates.add(cb.equal(root.get("category"), cat));
         } catch (IllegalArgumentException e) {
-          // ignore invalid category
+          // 忽略无效的分类
         }
       }
 
-      // 2. Keyword / Keyword Groups (Title or Summary)
+      // 2. 关键词 / 关键词组（标题或摘要）
       if (!coarseKeywordGroups.isEmpty()) {
         predicates.add(buildKeywordGroupsPredicate(root, cb, coarseKeywordGroups, request.getGroupMode()));
       } else {
@@ -109,39 +267,67 @@ public class NewsArticleService {
         }
       }
 
-      // 3. Sources
+      // 3. 来源
       if (request.getSources() != null && !request.getSources().isEmpty()) {
         predicates.add(root.get("sourceName").in(request.getSources()));
       }
 
-      // 4. Tags (JSON String like check)
-      if (request.getTags() != null && !request.getTags().isEmpty()) {
-        List<Predicate> tagPredicates = new ArrayList<>();
-        for (String tag : request.getTags()) {
-          tagPredicates.add(cb.like(root.get("tags"), "%\"" + tag + "\"%"));
-        }
-        predicates.add(cb.or(tagPredicates.toArray(new Predicate[0])));
+      // 4. 发布时间范围 [start, end)，走 (category, published_time) 索引
+      if (startDateTime != null) {
+        predicates.add(cb.greaterThanOrEqualTo(root.get("publishedAt"), startDateTime));
+      }
+      if (endDateTime != null) {
+        predicates.add(cb.lessThan(root.get("publishedAt"), endDateTime));
+      }
+
+      // 5. 标签：对 article_tag 做 exists 半连接（命中任一标签即可）
+      if (!tags.isEmpty()) {
+        Subquery<Integer> tagged = query.subquery(Integer.class);
+        Join<T, String> tag = tagged.correlate(root).join("tagSet");
+        tagged.select(cb.literal(1)).where(tag.in(tags));
+        predicates.add(cb.exists(tagged));
       }
 
       return cb.and(predicates.toArray(new Predicate[0]));
     };
+  }
 
-    Sort sort = Sort.by(Sort.Direction.DESC, "publishedAt");
-    if ("oldest".equalsIgnoreCase(request.getSortOrder())) {
-      sort = Sort.by(Sort.Direction.ASC, "publishedAt");
+  private List<NewsArticleCard> collapseClusters(List<NewsArticleCard> cards) {
+    return collapseClusters(cards, NewsArticleCard::clusterId, NewsArticleCard::id);
+  }
+
+  // 按 coalesce(clusterId, id) 折叠，保留每个簇在列表中的第一篇，顺序不变
+  private <T> List<T> collapseClusters(List<T> articles, Function<T, Long> clusterId, Function<T, Long> id) {
+    Set<Long> seen = new HashSet<>();
+    List<T> collapsed = new ArrayList<>();
+    for (T a : articles) {
+      Long key = clusterId.apply(a) != null ? clusterId.apply(a) : id.apply(a);
+      if (key == null || seen.add(key)) {
+        collapsed.add(a);
+      }
     }
+    return collapsed;
+  }
 
-    List<NewsArticle> results = newsArticleRepository.findAll(spec, sort).stream()
-        .filter(a -> matchesDateTimeRange(a.getPublishedAt(), startDateTime, endDateTime))
-        .filter(a -> matchesKeywordRequestPrecisely(a, preciseKeywordGroups, preciseKeyword, request.getGroupMode()))
-        .collect(Collectors.toList());
+  // 与 SQL 排序一致：升序时 publishedAt 为空的在前，降序时在后
+  private <T> Comparator<T> publishedAtOrder(Sort sort, Function<T, Instant> publishedAt) {
+    Comparator<T> ascending = Comparator.comparing(publishedAt,
+        Comparator.nullsFirst(Comparator.naturalOrder()));
+    Sort.Order order = sort.getOrderFor("publishedAt");
+    return order != null && order.isDescending() ? ascending.reversed() : ascending;
+  }
 
-    // Optimize payload: set rawContent to null if not requested
-    if (!request.isIncludeContent()) {
-      results.forEach(a -> a.setRawContent(null));
+  private Set<String> normalizeTags(List<String> tags) {
+    Set<String> normalized = new LinkedHashSet<>();
+    if (tags != null) {
+      for (String tag : tags) {
+        String t = ArticleTags.normalize(tag);
+        if (t != null) {
+          normalized.add(t);
+        }
+      }
     }
-
-    return results;
+    return normalized;
   }
 
   private String normalizeKeyword(String keyword) {
@@ -228,7 +414,7 @@ public class NewsArticleService {
   }
 
   private Predicate buildSingleKeywordPredicate(
-      Root<NewsArticle> root,
+      Root<? extends NewsArticleBase> root,
       CriteriaBuilder cb,
       String keywordTerm) {
     String likePattern = "%" + keywordTerm.toLowerCase() + "%";
@@ -238,7 +424,7 @@ public class NewsArticleService {
   }
 
   private Predicate buildKeywordGroupPredicate(
-      Root<NewsArticle> root,
+      Root<? extends NewsArticleBase> root,
       CriteriaBuilder cb,
       List<String> keywordGroup) {
     List<Predicate> groupPredicates = new ArrayList<>();
@@ -249,7 +435,7 @@ public class NewsArticleService {
   }
 
   private Predicate buildKeywordGroupsPredicate(
-      Root<NewsArticle> root,
+      Root<? extends NewsArticleBase> root,
       CriteriaBuilder cb,
       List<List<String>> keywordGroups,
       String groupMode) {
@@ -265,23 +451,22 @@ public class NewsArticleService {
   }
 
   private boolean matchesKeywordRequestPrecisely(
-      NewsArticle article,
+      String title,
+      String summary,
       List<List<String>> keywordGroups,
       String keyword,
       String groupMode) {
     if (!keywordGroups.isEmpty()) {
-      return matchesKeywordGroupsPrecisely(buildSearchableText(article), keywordGroups, groupMode);
+      return matchesKeywordGroupsPrecisely(buildSearchableText(title, summary), keywordGroups, groupMode);
     }
     if (keyword != null) {
-      return matchesKeywordTermPrecisely(buildSearchableText(article), keyword);
+      return matchesKeywordTermPrecisely(buildSearchableText(title, summary), keyword);
     }
     return true;
   }
 
-  private String buildSearchableText(NewsArticle article) {
-    String title = article.getTitle() == null ? "" : article.getTitle();
-    String summary = article.getSummary() == null ? "" : article.getSummary();
-    return title + "\n" + summary;
+  private String buildSearchableText(String title, String summary) {
+    return (title == null ? "" : title) + "\n" + (summary == null ? "" : summary);
   }
 
   private boolean matchesKeywordGroupsPrecisely(
@@ -352,27 +537,4 @@ public class NewsArticleService {
           + " must be a valid ISO 8601 UTC datetime with 'Z', e.g. 2026-02-13T02:35:00Z");
     }
   }
-
-  private boolean matchesDateTimeRange(String publishedAt, Instant startDateTime, Instant endDateTime) {
-    if (startDateTime == null && endDateTime == null) {
-      return true;
-    }
-    if (publishedAt == null || publishedAt.isBlank()) {
-      return false;
-    }
-    final Instant publishedInstant;
-    try {
-      publishedInstant = Instant.parse(publishedAt);
-    } catch (DateTimeParseException ex) {
-      return false;
-    }
-
-    if (startDateTime != null && publishedInstant.isBefore(startDateTime)) {
-      return false;
-    }
-    if (endDateTime != null && !publishedInstant.isBefore(endDateTime)) {
-      return false;
-    }
-    return true;
-  }
 }
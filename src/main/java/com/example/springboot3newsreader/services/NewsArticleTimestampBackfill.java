@@ -0,0 +1,99 @@
+package com.example.springboot3newsreader.services;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+import com.example.springboot3newsreader.repositories.BackfillMarkerRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.services.ingest.Timestamps;
+import com.example.springboot3newsreader.services.webadapters.WebAdapter;
+
+// 旧数据迁移：字符串列 published_at / scraped_at -> 时间列 published_time / scraped_time
+// 1) 启动后按 id 分页读取尚未回填的行，在 Java 中宽松解析（ISO instant / 带偏移 / 不带时区）
+//    不带时区的按文章链接对应站点适配器的时区解释（量子位为北京时间），其余按 UTC
+// 2) 发布时间无法识别时（如“今天”“01月25日”）用抓取时间代替，与网页抓取的兜底一致
+// 3) 写入后清空旧列，重启时只处理剩余的行；新库没有旧列时直接跳过
+// 4) 整轮无失败后写入完成标记（BackfillMarker），之后启动不再扫描
+@Service
+public class NewsArticleTimestampBackfill {
+
+  @Autowired
+  NewsArticleRepository newsArticleRepository;
+
+  @Autowired
+  BackfillMarkerRepository backfillMarkerRepository;
+
+  @Autowired
+  List<WebAdapter> webAdapters;
+
+  @Value("${app.timestamp.backfill-page-size:5000}")
+  private int pageSize;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    if (backfillMarkerRepository.isDone(BackfillMarker.TIMESTAMPS)) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    long afterId = 0;
+    long updated = 0;
+    long unparsed = 0;
+    long failed = 0;
+    while (true) {
+      List<Object[]> rows;
+      try {
+        rows = newsArticleRepository.findLegacyTimestampsAfterId(afterId, Math.max(1, pageSize));
+      } catch (Exception e) {
+        // 新库没有旧的字符串列
+        break;
+      }
+      if (rows.isEmpty()) {
+        break;
+      }
+      for (Object[] row : rows) {
+        afterId = ((Number) row[0]).longValue();
+        Instant scrapedAt = Timestamps.parse((String) row[2]);
+        Instant publishedAt = Timestamps.parse((String) row[1], localZone((String) row[3]));
+        if (publishedAt == null) {
+          publishedAt = scrapedAt;
+          unparsed++;
+        }
+        try {
+          updated += newsArticleRepository.updateLegacyTimestamps(afterId, publishedAt, scrapedAt);
+        } catch (Exception e) {
+          System.err.println("[timestamp] failed to backfill article " + afterId + ": " + e.getMessage());
+          failed++;
+        }
+      }
+    }
+    if (updated > 0) {
+      System.out.println("[timestamp] published_time/scraped_time backfilled: " + updated + " rows ("
+          + unparsed + " unparseable publishedAt) in " + (System.currentTimeMillis() - start) + "ms");
+    }
+    if (failed == 0) {
+      backfillMarkerRepository.markDone(BackfillMarker.TIMESTAMPS);
+    }
+  }
+
+  // 旧版本网页适配器把站点的本地时间原样存成不带时区的字符串
+  private ZoneId localZone(String articleUrl) {
+    if (articleUrl == null || articleUrl.isBlank()) {
+      return ZoneOffset.UTC;
+    }
+    for (WebAdapter adapter : webAdapters) {
+      if (adapter.supports(articleUrl)) {
+        return adapter.localZone();
+      }
+    }
+    return ZoneOffset.UTC;
+  }
+}
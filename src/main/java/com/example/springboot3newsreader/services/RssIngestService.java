@@ -4,11 +4,14 @@ import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
-import java.net.URL;
+import java.io.UncheckedIOException;
 import java.time.Instant;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
@@ -16,9 +19,8 @@ import org.springframework.stereotype.Service;
 
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
-import com.example.springboot3newsreader.models.ThumbnailTask;
-import com.example.springboot3newsreader.repositories.NewsArticleRepository;
-import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
+import com.rometools.rome.feed.module.SyModule;
+import com.rometools.rome.feed.rss.Channel;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
@@ -26,24 +28,50 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.beans.factory.annotation.Value;
-import java.net.HttpURLConnection;
+import io.micrometer.core.instrument.MeterRegistry;
 import com.example.springboot3newsreader.repositories.FeedItemRepository;
 import com.example.springboot3newsreader.models.FeedItem;
+import com.example.springboot3newsreader.services.ingest.FeedBodyHasher;
+import com.example.springboot3newsreader.services.ingest.FeedHttpClient;
+import com.example.springboot3newsreader.services.ingest.FeedHttpClient.FeedResponse;
+import com.example.springboot3newsreader.services.ingest.FeedPollScheduler;
+import com.example.springboot3newsreader.services.ingest.FeedWatermark;
+import com.example.springboot3newsreader.services.ingest.HtmlSnippetExtractor;
+import com.example.springboot3newsreader.services.ingest.IngestStages;
+import com.example.springboot3newsreader.services.ingest.RssStreamParser;
+import com.example.springboot3newsreader.services.ingest.RssStreamParser.FeedInfo;
 
 @Service
 public class RssIngestService {
 
   @Autowired
-  private NewsArticleRepository newsArticleRepository;
+  private FeedItemRepository feedItemRepository;
   @Autowired
-  private NewsArticleDedupeService newsArticleDedupeService;
+  private FeedHttpClient feedHttpClient;
   @Autowired
-  private ThumbnailTaskRepository thumbnailTaskRepository;
+  private MeterRegistry meterRegistry;
   @Autowired
-  private FeedItemRepository feedItemRepository;
+  private IngestStages ingestStages;
 
   @Value("${app.feature.thumbnail-task.enabled:true}")
   private boolean thumbnailTaskEnabled;
+  // true: StAX 流式解析；false: 读成字符串后交给 Rome
+  @Value("${app.ingest.rss.streaming-parse.enabled:true}")
+  private boolean streamingParseEnabled;
+
+  // true: 比较忽略 lastBuildDate 后的哈希；false: 比较原始响应体哈希
+  @Value("${app.ingest.rss.normalized-hash.enabled:true}")
+  private boolean normalizedHashEnabled;
+
+  // description 摘要提取：false 用轻量单遍扫描（默认），true 用 Jsoup 构建完整 DOM
+  @Value("${app.ingest.rss.jsoup-snippet.enabled:false}")
+  private boolean jsoupSnippetEnabled;
+
+  private static final String FETCH_METRIC = "ingest.rss.fetch";
+  private static final String BYTES_METRIC = "ingest.rss.bytes";
+  private static final int SUMMARY_LENGTH = 200;
+
+  private final RssStreamParser rssStreamParser = new RssStreamParser();
 
   public List<NewsArticle> parseOnly(String rssUrl, String sourceName) throws Exception {
     return parseOnly(rssUrl, sourceName, null);
@@ -52,277 +80,346 @@ public class RssIngestService {
   public List<NewsArticle> parseOnly(String rssUrl, String sourceName, NewsCategory category)
       throws Exception {
     System.out.println("[rss] parse start: " + rssUrl);
-    // 这里复制 ingest 里的解析逻辑
-    // 唯一区别：最后 return articles，不要 saveAll
-    URL url = new URL(rssUrl);
-    // 拉取 RSS XML
-    InputStream input = url.openStream();
-
-    // 用 Rome 解析 RSS（部分源带 DOCTYPE，会被默认安全策略拦截）
-    String xml = readToString(input);
-    xml = stripDoctype(xml);
-    SyndFeedInput inputFeed = new SyndFeedInput();
-    SyndFeed feed = inputFeed.build(new StringReader(xml));
-
-    // 取 RSS 标题作为来源名
-    List<NewsArticle> articles = new ArrayList<>();
-    System.out.println("[rss] entries: " + feed.getEntries().size());
+    // 拉取 RSS XML（共用连接池，不带缓存头），只解析不入库
+    try (FeedResponse response = await(feedHttpClient.fetch(rssUrl, null, null))) {
+      return parseFeed(response.getBody(), rssUrl, sourceName, category);
+    }
+  }
 
-    for (SyndEntry entry : feed.getEntries()) {
-      NewsArticle a = new NewsArticle();
-      // 标题和原文链接
-      a.setTitle(entry.getTitle());
-      a.setSourceURL(entry.getLink());
-      a.setSourceName(sourceName);
-
-      // 发布时间（无则用当前时间）
-      String publishedAt = entry.getPublishedDate() != null
-          ? entry.getPublishedDate().toInstant().toString()
-          : Instant.now().toString();
-      a.setPublishedAt(publishedAt);
-
-      // 抓取时间
-      a.setScrapedAt(Instant.now().toString());
-
-      // 摘要（最多 100 字符）
-      // 摘要与图片提取
-      String descriptionHtml = null;
-      if (entry.getDescription() != null) {
-        descriptionHtml = entry.getDescription().getValue();
-        // 保存完整 HTML 到 rawContent 供详情页展示
-        a.setRawContent(descriptionHtml);
-      }
+  // 新增：支持 Conditional GET 的入口
+  public List<NewsArticle> ingest(FeedItem feedItem) throws Exception {
+    return await(fetchAndIngest(feedItem));
+  }
 
-      String imgFromDesc = null;
-      if (descriptionHtml != null && !descriptionHtml.isEmpty()) {
-        try {
-          Document doc = Jsoup.parse(descriptionHtml);
-          // 1. 提取描述中的第一张图片
-          Element img = doc.selectFirst("img");
-          if (img != null) {
-            String src = img.attr("src");
-            if (src != null && !src.isEmpty()) {
-              imgFromDesc = src;
-            }
-          }
-          // 2. 清理 HTML 标签作为摘要
-          String cleanText = doc.text();
-          if (cleanText != null) {
-            a.setSummary(cleanText.length() > 200 ? cleanText.substring(0, 200) + "..." : cleanText);
+  // 非阻塞版本：请求通过共用 HttpClient 异步发出，等待响应期间不占用线程
+  // 响应到达后在 HttpClient 的回调线程上完成解析，解析结果交给 IngestStages 去重、入库
+  public CompletableFuture<List<NewsArticle>> fetchAndIngest(FeedItem feedItem) {
+    System.out.println("[rss] ingest start (conditional): " + feedItem.getUrl());
+    return feedHttpClient.fetch(feedItem.getUrl(), feedItem.getEtag(), feedItem.getLastModified())
+        .thenCompose(response -> {
+          try {
+            return handleResponse(feedItem, response);
+          } catch (Exception e) {
+            throw new CompletionException(e);
           }
-        } catch (Exception e) {
-          // 降级处理
-          a.setSummary(descriptionHtml.length() > 100 ? descriptionHtml.substring(0, 100) : descriptionHtml);
-        }
-      }
+        });
+  }
 
-      // 缩略图：优先使用条目图片，其次使用文章页面 OG/Twitter 图
-      String thumbnailUrl = null;
-      if (entry.getEnclosures() != null) {
-        for (var enclosure : entry.getEnclosures()) {
-          if (enclosure.getType() != null && enclosure.getType().startsWith("image/")) {
-            thumbnailUrl = enclosure.getUrl();
-            break;
-          }
+  private CompletableFuture<List<NewsArticle>> handleResponse(FeedItem feedItem, FeedResponse response)
+      throws Exception {
+    if (response.isNotModified()) {
+      System.out.println("[rss] 304 Not Modified, skipping: " + feedItem.getName());
+      meterRegistry.counter(FETCH_METRIC, "result", "not_modified").increment();
+      return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
+    // 解析内容 (200 OK)
+    // 缓存头、条目水位与哈希先记在局部变量里，入库成功后再一起写回并保存，
+    // 避免入库失败时下次被 304 / 水位跳过
+    String newEtag = response.getEtag();
+    String newLastModified = response.getLastModified();
+
+    FeedWatermark watermark = FeedWatermark.of(feedItem);
+    FeedBodyHasher body = new FeedBodyHasher(response.getBody());
+    List<NewsArticle> articles;
+    String contentHash;
+    String normalizedContentHash;
+    try (response) {
+      if (streamingParseEnabled) {
+        // 流式模式下载、计算哈希与解析是同一趟读取，不缓存响应体；
+        // 哈希在读完后得到，内容未变时丢弃解析结果（旧条目本来也会被水位跳过）
+        articles = parseStreaming(body, feedItem.getUrl(), feedItem.getName(), feedItem.getCategory(),
+            watermark, feedItem);
+        body.drain();
+        contentHash = body.rawHash();
+        normalizedContentHash = body.normalizedHash();
+        if (isUnchangedBody(feedItem, contentHash, normalizedContentHash)) {
+          articles = new ArrayList<>();
         }
+      } else {
+        // Rome 模式先下载完整内容，哈希一致时直接结束，不再解析
+        String xml = readToString(body);
+        body.drain();
+        contentHash = body.rawHash();
+        normalizedContentHash = body.normalizedHash();
+        articles = isUnchangedBody(feedItem, contentHash, normalizedContentHash)
+            ? new ArrayList<>()
+            : parseRomeXml(xml, feedItem.getUrl(), feedItem.getName(), feedItem.getCategory(), watermark,
+                feedItem);
       }
-      if (thumbnailUrl == null && imgFromDesc != null) {
-        thumbnailUrl = imgFromDesc;
-      }
-      if (thumbnailUrl == null && feed.getImage() != null) {
-        thumbnailUrl = feed.getImage().getUrl();
-      }
+    }
+
+    recordTransferSize(feedItem, response);
 
-      if (thumbnailUrl != null && shouldIgnoreRssThumbnail(rssUrl, sourceName, thumbnailUrl)) {
-        thumbnailUrl = null;
+    if (isUnchangedBody(feedItem, contentHash, normalizedContentHash)) {
+      System.out.println("[rss] body unchanged (hash), skipping: " + feedItem.getName());
+      meterRegistry.counter(FETCH_METRIC, "result", "unchanged").increment();
+      if (applyCacheHeaders(feedItem, newEtag, newLastModified)) {
+        feedItemRepository.save(feedItem);
       }
+      return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+    meterRegistry.counter(FETCH_METRIC, "result", "changed").increment();
+    if (watermark.getSkipped() > 0) {
+      System.out.println("[rss] skipped by watermark: " + watermark.getSkipped());
+    }
+    System.out.println("[rss] parsed articles: " + articles.size());
 
-      if (thumbnailUrl != null) {
-        a.setTumbnailURL(thumbnailUrl);
+    // 去重、入库、补图任务交给流水线；入库成功后再提交 feed 状态
+    return ingestStages.submit(feedItem.getName(), articles, thumbnailTaskEnabled, () -> {
+      boolean feedStateChanged = applyCacheHeaders(feedItem, newEtag, newLastModified);
+      if (watermark.applyTo(feedItem)) {
+        feedStateChanged = true;
       }
-      if (category != null) {
-        a.setCategory(category);
+      if (!contentHash.equals(feedItem.getContentHash())
+          || !normalizedContentHash.equals(feedItem.getNormalizedContentHash())) {
+        feedItem.setContentHash(contentHash);
+        feedItem.setNormalizedContentHash(normalizedContentHash);
+        feedStateChanged = true;
       }
-
-      // tags / thumbnail / rawContent 可留空
-      articles.add(a);
-    }
-    return articles;
+      if (feedStateChanged) {
+        feedItemRepository.save(feedItem);
+      }
+    });
   }
 
-  // 新增：支持 Conditional GET 的入口
-  public List<NewsArticle> ingest(FeedItem feedItem) throws Exception {
-    System.out.println("[rss] ingest start (conditional): " + feedItem.getUrl());
-
-    // 1. 建立连接
-    URL url = new URL(feedItem.getUrl());
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setConnectTimeout(5000);
-    connection.setReadTimeout(10000);
+  // 记录本次响应体的线上字节数与解压后字节数（随调度状态一起保存）
+  private void recordTransferSize(FeedItem feedItem, FeedResponse response) {
+    long wire = response.getWireBytes();
+    long decoded = response.getDecodedBytes();
+    feedItem.setLastWireBytes(wire);
+    feedItem.setLastDecodedBytes(decoded);
+    meterRegistry.counter(BYTES_METRIC, "kind", "wire").increment(wire);
+    meterRegistry.counter(BYTES_METRIC, "kind", "decoded").increment(decoded);
+    System.out.println("[rss] body bytes: wire=" + wire + " decoded=" + decoded + " (" + feedItem.getName() + ")");
+  }
 
-    // 2. 设置缓存头
-    if (feedItem.getEtag() != null) {
-      connection.setRequestProperty("If-None-Match", feedItem.getEtag());
+  private boolean applyCacheHeaders(FeedItem feedItem, String etag, String lastModified) {
+    boolean changed = false;
+    if (etag != null) {
+      feedItem.setEtag(etag);
+      changed = true;
     }
-    if (feedItem.getLastModified() != null) {
-      connection.setRequestProperty("If-Modified-Since", feedItem.getLastModified());
+    if (lastModified != null) {
+      feedItem.setLastModified(lastModified);
+      changed = true;
     }
+    return changed;
+  }
 
-    // 3. 发起请求
-    int responseCode = connection.getResponseCode();
-    if (responseCode == 304) {
-      System.out.println("[rss] 304 Not Modified, skipping: " + feedItem.getName());
-      return new ArrayList<>();
+  // 与上次成功入库时的响应体哈希比较（可配置是否忽略 lastBuildDate）
+  private boolean isUnchangedBody(FeedItem feedItem, String contentHash, String normalizedContentHash) {
+    if (normalizedHashEnabled) {
+      return normalizedContentHash.equals(feedItem.getNormalizedContentHash());
     }
+    return contentHash.equals(feedItem.getContentHash());
+  }
 
-    // 4. 解析内容 (200 OK)
-    // 更新缓存头到数据库 (稍后保存)
-    String newEtag = connection.getHeaderField("ETag");
-    String newLastModified = connection.getHeaderField("Last-Modified");
-
-    boolean headerChanged = false;
-    if (newEtag != null) {
-      feedItem.setEtag(newEtag);
-      headerChanged = true;
-    }
-    if (newLastModified != null) {
-      feedItem.setLastModified(newLastModified);
-      headerChanged = true;
-    }
-    if (headerChanged) {
-      feedItemRepository.save(feedItem);
+  // 等待异步结果，并还原被 CompletableFuture 包装的原始异常
+  private <T> T await(CompletableFuture<T> future) throws Exception {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+          && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
     }
+  }
 
-    InputStream input = connection.getInputStream();
-    String xml = readToString(input);
-    xml = stripDoctype(xml);
-    SyndFeedInput inputFeed = new SyndFeedInput();
-    SyndFeed feed = inputFeed.build(new StringReader(xml));
-
-    List<NewsArticle> articles = parseSyndFeed(feed, feedItem.getName(), feedItem.getCategory());
+  // 按配置选择解析方式：流式 StAX（默认）或 Rome 整份解析（仅预览，不做水位跳过）
+  private List<NewsArticle> parseFeed(InputStream input, String rssUrl, String sourceName,
+      NewsCategory category) throws Exception {
+    if (streamingParseEnabled) {
+      return parseStreaming(input, rssUrl, sourceName, category, null, null);
+    }
+    return parseRomeXml(readToString(input), rssUrl, sourceName, category, null, null);
+  }
 
-    // 其余逻辑复用旧的 ingest 流程 (去重、保存...)
-    return saveParsedArticles(articles);
+  // 水位判断放在任何 HTML 解析之前
+  private boolean skipByWatermark(FeedWatermark watermark, Date publishedDate, String entryKey) {
+    if (watermark == null) {
+      return false;
+    }
+    watermark.observe(publishedDate, entryKey);
+    return watermark.isSeen(publishedDate, entryKey);
   }
 
-  // 抽取出来的公用保存逻辑
-  private List<NewsArticle> saveParsedArticles(List<NewsArticle> articles) {
-    System.out.println("[rss] parsed articles: " + articles.size());
-    int before = articles.size();
-    articles = newsArticleDedupeService.filterNewArticles(articles);
-    System.out.println("[rss] after dedupe: " + articles.size()
-        + " (removed " + (before - articles.size()) + ")");
-    System.out.println("[rss] saving articles...");
-    List<NewsArticle> saved = newsArticleRepository.saveAll(articles);
-
-    List<ThumbnailTask> tasks = new ArrayList<>();
-    if (thumbnailTaskEnabled) {
-      for (NewsArticle a : saved) {
-        if (a.getTumbnailURL() != null && !a.getTumbnailURL().isBlank()) {
-          continue;
-        }
-        ThumbnailTask task = new ThumbnailTask();
-        task.setArticleId(a.getId());
-        task.setArticleUrl(a.getSourceURL());
-        task.setStatus("WAITING");
-        task.setAttempts(0);
-        task.setCreatedAt(LocalDateTime.now());
-        task.setUpdatedAt(LocalDateTime.now());
-        tasks.add(task);
+  // 流式解析：边读边把每条 entry 转成 NewsArticle，内存占用与 feed 大小无关
+  // watermark / feedState 为空时不做水位跳过、不记录 feed 自带的更新周期（如 parseOnly 预览）
+  private List<NewsArticle> parseStreaming(InputStream input, String rssUrl, String sourceName,
+      NewsCategory category, FeedWatermark watermark, FeedItem feedState) throws Exception {
+    List<NewsArticle> articles = new ArrayList<>();
+    FeedInfo info = rssStreamParser.parse(input, entry -> {
+      String entryKey = entry.getGuid() != null ? entry.getGuid() : entry.getLink();
+      if (skipByWatermark(watermark, entry.getPublishedDate(), entryKey)) {
+        return;
       }
-      if (!tasks.isEmpty()) {
-        System.out.println("[rss] creating thumbnail tasks: " + tasks.size());
-        thumbnailTaskRepository.saveAll(tasks);
-      } else {
-        System.out.println("[rss] no thumbnail tasks created");
+      articles.add(buildArticle(
+          entry.getTitle(),
+          entry.getLink(),
+          entry.getPublishedDate(),
+          entry.getDescriptionHtml(),
+          entry.getImageEnclosureUrl(),
+          null,
+          rssUrl, sourceName, category));
+    });
+    System.out.println("[rss] entries (streaming): " + articles.size());
+    if (feedState != null) {
+      feedState.setPublisherTtlMinutes(FeedPollScheduler.publisherIntervalMinutes(
+          info.getTtlMinutes(), info.getUpdatePeriod(), info.getUpdateFrequency()));
+    }
+
+    // channel 图片可能出现在 item 之后，解析结束后再补给没有图片的条目
+    String feedImage = info.getImageUrl();
+    if (feedImage != null && !shouldIgnoreRssThumbnail(rssUrl, sourceName, feedImage)) {
+      for (NewsArticle a : articles) {
+        if (a.getTumbnailURL() == null) {
+          a.setTumbnailURL(feedImage);
+        }
       }
-    } else {
-      System.out.println("[rss] skipping thumbnail tasks (disabled by config)");
     }
-    return saved;
+    return articles;
   }
 
-  // 将 parseOnly 的核心逻辑抽取出来 (原 parseOnly 需要保留以兼容旧代码，或者改写)
-  private List<NewsArticle> parseSyndFeed(SyndFeed feed, String sourceName, NewsCategory category) {
+  // Rome 解析：需要先把整份 XML 读成字符串（部分源带 DOCTYPE，会被默认安全策略拦截）
+  private List<NewsArticle> parseRomeXml(String xml, String rssUrl, String sourceName,
+      NewsCategory category, FeedWatermark watermark, FeedItem feedState) throws Exception {
+    xml = stripDoctype(xml);
+    SyndFeedInput inputFeed = new SyndFeedInput();
+    // 保留原始 Channel 以读取 <ttl>
+    inputFeed.setPreserveWireFeed(true);
+    SyndFeed feed = inputFeed.build(new StringReader(xml));
+    if (feedState != null) {
+      Integer ttl = feed.originalWireFeed() instanceof Channel channel && channel.getTtl() > 0
+          ? channel.getTtl() : null;
+      SyModule sy = (SyModule) feed.getModule(SyModule.URI);
+      feedState.setPublisherTtlMinutes(FeedPollScheduler.publisherIntervalMinutes(
+          ttl,
+          sy != null ? sy.getUpdatePeriod() : null,
+          sy != null ? sy.getUpdateFrequency() : null));
+    }
+
     List<NewsArticle> articles = new ArrayList<>();
     System.out.println("[rss] entries: " + feed.getEntries().size());
+    String feedImage = feed.getImage() != null ? feed.getImage().getUrl() : null;
 
     for (SyndEntry entry : feed.getEntries()) {
-      NewsArticle a = new NewsArticle();
-      a.setTitle(entry.getTitle());
-      a.setSourceURL(entry.getLink());
-      a.setSourceName(sourceName);
-
-      String publishedAt = entry.getPublishedDate() != null
-          ? entry.getPublishedDate().toInstant().toString()
-          : Instant.now().toString();
-      a.setPublishedAt(publishedAt);
-      a.setScrapedAt(Instant.now().toString());
-
-      String descriptionHtml = null;
-      if (entry.getDescription() != null) {
-        descriptionHtml = entry.getDescription().getValue();
-        a.setRawContent(descriptionHtml);
-      }
-
-      String imgFromDesc = null;
-      if (descriptionHtml != null && !descriptionHtml.isEmpty()) {
-        try {
-          Document doc = Jsoup.parse(descriptionHtml);
-          Element img = doc.selectFirst("img");
-          if (img != null) {
-            String src = img.attr("src");
-            if (src != null && !src.isEmpty()) {
-              imgFromDesc = src;
-            }
-          }
-          String cleanText = doc.text();
-          if (cleanText != null) {
-            a.setSummary(cleanText.length() > 200 ? cleanText.substring(0, 200) + "..." : cleanText);
-          }
-        } catch (Exception e) {
-          a.setSummary(descriptionHtml.length() > 100 ? descriptionHtml.substring(0, 100) : descriptionHtml);
-        }
+      String entryKey = entry.getUri() != null ? entry.getUri() : entry.getLink();
+      if (skipByWatermark(watermark, entry.getPublishedDate(), entryKey)) {
+        continue;
       }
-
-      String thumbnailUrl = null;
+      String enclosureImage = null;
       if (entry.getEnclosures() != null) {
         for (var enclosure : entry.getEnclosures()) {
           if (enclosure.getType() != null && enclosure.getType().startsWith("image/")) {
-            thumbnailUrl = enclosure.getUrl();
+            enclosureImage = enclosure.getUrl();
             break;
           }
         }
       }
-      if (thumbnailUrl == null && imgFromDesc != null) {
-        thumbnailUrl = imgFromDesc;
-      }
-      if (thumbnailUrl == null && feed.getImage() != null) {
-        thumbnailUrl = feed.getImage().getUrl();
-      }
+      articles.add(buildArticle(
+          entry.getTitle(),
+          entry.getLink(),
+          entry.getPublishedDate(),
+          entry.getDescription() != null ? entry.getDescription().getValue() : null,
+          enclosureImage,
+          feedImage,
+          rssUrl, sourceName, category));
+    }
+    return articles;
+  }
 
-      if (thumbnailUrl != null && shouldIgnoreRssThumbnail(null, sourceName, thumbnailUrl)) {
-        thumbnailUrl = null;
-      }
+  // 单条 entry -> NewsArticle（两种解析方式共用）
+  private NewsArticle buildArticle(String title, String link, Date publishedDate, String descriptionHtml,
+      String enclosureImage, String feedImage, String rssUrl, String sourceName, NewsCategory category) {
+    NewsArticle a = new NewsArticle();
+    // 标题和原文链接
+    a.setTitle(title);
+    a.setSourceURL(link);
+    a.setSourceName(sourceName);
+
+    // 发布时间（无则用当前时间）
+    a.setPublishedAt(publishedDate != null ? publishedDate.toInstant() : Instant.now());
+    // 抓取时间
+    a.setScrapedAt(Instant.now());
+
+    // 保存完整 HTML 到 rawContent 供详情页展示
+    if (descriptionHtml != null) {
+      a.setRawContent(descriptionHtml);
+    }
 
-      if (thumbnailUrl != null) {
-        a.setTumbnailURL(thumbnailUrl);
+    // 摘要与图片提取
+    String imgFromDesc = null;
+    boolean extracted = false;
+    if (descriptionHtml != null && !descriptionHtml.isEmpty() && !jsoupSnippetEnabled) {
+      try {
+        // 轻量提取：单遍扫描，拿到首图与前 200 字即停止，不构建 DOM
+        HtmlSnippetExtractor.Snippet snippet = HtmlSnippetExtractor.extract(descriptionHtml, SUMMARY_LENGTH);
+        imgFromDesc = snippet.getImageUrl();
+        a.setSummary(snippet.isTruncated() ? snippet.getText() + "..." : snippet.getText());
+        extracted = true;
+      } catch (RuntimeException e) {
+        // 异常时回退到下面的 Jsoup 完整解析
+        System.out.println("[rss] snippet extractor failed, falling back to jsoup: " + e.getMessage());
       }
-      if (category != null) {
-        a.setCategory(category);
+    }
+    if (!extracted && descriptionHtml != null && !descriptionHtml.isEmpty()) {
+      try {
+        Document doc = Jsoup.parse(descriptionHtml);
+        // 1. 提取描述中的第一张图片
+        Element img = doc.selectFirst("img");
+        if (img != null) {
+          String src = img.attr("src");
+          if (src != null && !src.isEmpty()) {
+            imgFromDesc = src;
+          }
+        }
+        // 2. 清理 HTML 标签作为摘要
+        String cleanText = doc.text();
+        if (cleanText != null) {
+          a.setSummary(cleanText.length() > SUMMARY_LENGTH
+              ? cleanText.substring(0, SUMMARY_LENGTH) + "..."
+              : cleanText);
+        }
+      } catch (Exception e) {
+        // 降级处理
+        a.setSummary(descriptionHtml.length() > 100 ? descriptionHtml.substring(0, 100) : descriptionHtml);
       }
-      articles.add(a);
     }
-    return articles;
+
+    // 缩略图：优先使用条目图片，其次描述中的图片，最后是 feed 图片
+    String thumbnailUrl = enclosureImage;
+    if (thumbnailUrl == null && imgFromDesc != null) {
+      thumbnailUrl = imgFromDesc;
+    }
+    if (thumbnailUrl == null && feedImage != null) {
+      thumbnailUrl = feedImage;
+    }
+    if (thumbnailUrl != null && shouldIgnoreRssThumbnail(rssUrl, sourceName, thumbnailUrl)) {
+      thumbnailUrl = null;
+    }
+    if (thumbnailUrl != null) {
+      a.setTumbnailURL(thumbnailUrl);
+    }
+    if (category != null) {
+      a.setCategory(category);
+    }
+    // tags 可留空
+    return a;
   }
 
   // 兼容旧接口，但不推荐使用 (无法利用 header 缓存)
   public List<NewsArticle> ingest(String rssUrl, String sourceName, NewsCategory category)
       throws Exception {
-    // ... 简单的回退逻辑，或者直接调用上面的 parseOnly 然后 saveParsedArticles ...
-    // 为了简单起见，这里直接复用 parseOnly + saveParsedArticles
+    // 不带缓存头的回退逻辑：parseOnly 之后交给同一条去重 / 入库流水线
     List<NewsArticle> articles = parseOnly(rssUrl, sourceName, category);
-    return saveParsedArticles(articles);
+    return await(ingestStages.submit(sourceName, articles, thumbnailTaskEnabled, null));
   }
 
   // 异步版本：不阻塞调用方
@@ -5,6 +5,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.springboot3newsreader.models.NewsArticle;
 
 @Component
 public class ScheduledTasks {
@@ -12,16 +15,18 @@ public class ScheduledTasks {
     @Autowired
     private NewsArticleService newsArticleService;
 
-    // 每1小时执行一次 (cron: 秒 分 时 日 月 周)
-    // 0 0 * * * ? -> 每小时的第0分0秒执行
-    @Scheduled(cron = "0 0,30 * * * ?")
+    // 每分钟 tick 一次，只抓 nextPollAt 已到期的源（各源的间隔见 FeedPollScheduler）
+    // fixedDelay：上一轮抓取结束后再计时，不会重叠
+    @Scheduled(fixedDelayString = "${app.ingest.schedule.tick-ms:60000}",
+            initialDelayString = "${app.ingest.schedule.tick-ms:60000}")
     public void scheduleRefresh() {
-        System.out.println("[Scheduled] Starting hourly feed refresh at " + LocalDateTime.now());
         try {
-            newsArticleService.refreshFromRssFeeds();
-            System.out.println("[Scheduled] Hourly feed refresh completed at " + LocalDateTime.now());
+            List<NewsArticle> saved = newsArticleService.refreshDueFeeds();
+            if (!saved.isEmpty()) {
+                System.out.println("[Scheduled] Feed refresh saved " + saved.size() + " articles at " + LocalDateTime.now());
+            }
         } catch (Exception e) {
-            System.err.println("[Scheduled] Hourly feed refresh failed: " + e.getMessage());
+            System.err.println("[Scheduled] Feed refresh failed: " + e.getMessage());
         }
     }
 }
@@ -1,7 +1,9 @@
 package com.example.springboot3newsreader.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +15,7 @@ import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.ThumbnailTask;
 import com.example.springboot3newsreader.repositories.NewsArticleRepository;
 import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
+import com.example.springboot3newsreader.services.ingest.IngestExecutor;
 import com.example.springboot3newsreader.services.webadapters.WebAdapter;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -38,6 +41,8 @@ public class ThumbnailTaskService {
   NewsArticleRepository newsArticleRepository;
   @Autowired
   private List<WebAdapter> webAdapters;
+  @Autowired
+  private IngestExecutor ingestExecutor;
 
   @Value("${app.feature.thumbnail-task.enabled:true}")
   private boolean thumbnailTaskEnabled;
@@ -53,9 +58,22 @@ public class ThumbnailTaskService {
         List.of(STATUS_WAITING, STATUS_FAILED),
         LocalDateTime.now(),
         PageRequest.of(0, BATCH_SIZE));
-    // 2) 逐条处理（避免一个任务异常导致整个批次中断）
+    // 2) 每条任务单独提交到抓取执行器（按文章 host 限流，虚拟线程模式下各占一个虚拟线程）
+    //    单个任务异常不影响整个批次
+    List<CompletableFuture<Void>> running = new ArrayList<>();
     for (ThumbnailTask task : tasks) {
-      processSingleTask(task.getId());
+      Long taskId = task.getId();
+      running.add(ingestExecutor.submitPage(IngestExecutor.hostKey(task.getArticleUrl()), () -> {
+        processSingleTask(taskId);
+        return null;
+      }));
+    }
+    for (CompletableFuture<Void> future : running) {
+      try {
+        future.join();
+      } catch (Exception e) {
+        System.err.println("[thumbnail] task failed: " + e.getMessage());
+      }
     }
   }
 
@@ -12,13 +12,14 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.springboot3newsreader.models.FeedItem;
 import com.example.springboot3newsreader.models.NewsArticle;
-import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+import com.example.springboot3newsreader.services.ingest.IngestStages;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -44,11 +45,22 @@ public class TwitterIngestService {
   @Autowired
   private TwitterRapidApiClient twitterRapidApiClient;
   @Autowired
-  private NewsArticleRepository newsArticleRepository;
-  @Autowired
-  private NewsArticleDedupeService newsArticleDedupeService;
+  private IngestStages ingestStages;
 
   public List<NewsArticle> ingest(FeedItem feedItem) throws Exception {
+    List<NewsArticle> articles = fetchArticles(feedItem);
+    if (articles.isEmpty()) {
+      return articles;
+    }
+    try {
+      return ingestStages.submit(feedItem.getName(), articles, false, null).get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+    }
+  }
+
+  // 抓取 + 解析（流水线的 fetch / parse 阶段），不入库
+  public List<NewsArticle> fetchArticles(FeedItem feedItem) throws Exception {
     if (feedItem == null || feedItem.getUrl() == null || feedItem.getUrl().isBlank()) {
       return new ArrayList<>();
     }
@@ -62,12 +74,8 @@ public class TwitterIngestService {
     System.out.println("[twitter] ingest start: @" + username);
     JsonNode timeline = twitterRapidApiClient.fetchUserTweets(userId, DEFAULT_TWEET_FETCH_COUNT);
     List<NewsArticle> articles = parseTimeline(timeline, feedItem, username);
-
-    int before = articles.size();
-    articles = newsArticleDedupeService.filterNewArticles(articles);
-    System.out.println("[twitter] after dedupe: " + articles.size()
-        + " (removed " + (before - articles.size()) + ")");
-    return newsArticleRepository.saveAll(articles);
+    System.out.println("[twitter] parsed tweets: " + articles.size());
+    return articles;
   }
 
   String extractUsername(String url) {
@@ -174,7 +182,7 @@ public class TwitterIngestService {
       article.setSourceName(feedItem.getName());
       article.setSourceURL(truncate("https://x.com/" + username + "/status/" + tweetId, MAX_SOURCE_URL_LENGTH));
       article.setPublishedAt(extractPublishedAt(tweet));
-      article.setScrapedAt(Instant.now().toString());
+      article.setScrapedAt(Instant.now());
       article.setCategory(feedItem.getCategory());
       article.setTags(serializeTags(extractTags(tweet)));
 
@@ -314,15 +322,15 @@ public class TwitterIngestService {
     return null;
   }
 
-  private String extractPublishedAt(JsonNode tweet) {
+  private Instant extractPublishedAt(JsonNode tweet) {
     String createdAt = tweet.path("legacy").path("created_at").asText(null);
     if (createdAt == null || createdAt.isBlank()) {
-      return Instant.now().toString();
+      return Instant.now();
     }
     try {
-      return OffsetDateTime.parse(createdAt, TWITTER_DATE_FORMATTER).toInstant().toString();
+      return OffsetDateTime.parse(createdAt, TWITTER_DATE_FORMATTER).toInstant();
     } catch (Exception e) {
-      return Instant.now().toString();
+      return Instant.now();
     }
   }
 
@@ -1,6 +1,7 @@
 package com.example.springboot3newsreader.services;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.example.springboot3newsreader.services.ingest.ContentDecoding;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -57,6 +59,7 @@ public class TwitterRapidApiClient {
         .timeout(Duration.ofSeconds(20))
         .header("x-rapidapi-key", rapidApiKey)
         .header("x-rapidapi-host", rapidApiHost)
+        .header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING)
         .GET()
         .build();
 
@@ -64,10 +67,14 @@ public class TwitterRapidApiClient {
     Exception lastError = null;
     for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
       try {
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
         int statusCode = response.statusCode();
-        if (statusCode >= 200 && statusCode < 300) {
-          return objectMapper.readTree(response.body());
+        // JSON 响应按 Content-Encoding 边读边解压
+        try (InputStream body = ContentDecoding.decode(response.body(),
+            response.headers().firstValue("Content-Encoding").orElse(null))) {
+          if (statusCode >= 200 && statusCode < 300) {
+            return objectMapper.readTree(body);
+          }
         }
         if (statusCode == HttpStatus.TOO_MANY_REQUESTS.value() || statusCode >= 500) {
           lastError = new IOException("RapidAPI request failed with status " + statusCode);
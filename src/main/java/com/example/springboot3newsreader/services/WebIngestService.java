@@ -1,6 +1,8 @@
 package com.example.springboot3newsreader.services;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -8,9 +10,7 @@ import org.springframework.stereotype.Service;
 import com.example.springboot3newsreader.ApiResponse;
 import com.example.springboot3newsreader.models.NewsArticle;
 import com.example.springboot3newsreader.models.NewsCategory;
-import com.example.springboot3newsreader.models.ThumbnailTask;
-import com.example.springboot3newsreader.repositories.NewsArticleRepository;
-import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
+import com.example.springboot3newsreader.services.ingest.IngestStages;
 import com.example.springboot3newsreader.services.webadapters.WebAdapter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -18,11 +18,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class WebIngestService {
 
   @Autowired
-  private NewsArticleRepository newsArticleRepository;
-  @Autowired
-  private ThumbnailTaskRepository thumbnailTaskRepository;
-  @Autowired
-  private NewsArticleDedupeService newsArticleDedupeService;
+  private IngestStages ingestStages;
 
   @Autowired
   private List<WebAdapter> webAdapters;
@@ -71,45 +67,27 @@ public class WebIngestService {
   public List<NewsArticle> ingest(String siteUrl, String sourceName, NewsCategory category)
     throws Exception {
     System.out.println("[web] ingest start: " + siteUrl);
-    // 先解析，再批量入库
+    // 先解析，再交给去重 / 入库流水线（补图任务也在流水线中创建）
+    List<NewsArticle> articles = fetchArticles(siteUrl, sourceName, category);
+    try {
+      return ingestStages.submit(sourceName, articles, true, null).get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+    }
+  }
+
+  // 抓取 + 解析（流水线的 fetch / parse 阶段），不入库
+  public List<NewsArticle> fetchArticles(String siteUrl, String sourceName, NewsCategory category)
+    throws Exception {
     List<NewsArticle> articles = parseOnly(siteUrl, sourceName, category);
     System.out.println("[web] parsed articles: " + articles.size());
-    int before = articles.size();
-    articles = newsArticleDedupeService.filterNewArticles(articles);
-    System.out.println("[web] after dedupe: " + articles.size()
-      + " (removed " + (before - articles.size()) + ")");
     for (NewsArticle a : articles) {
       // 已有首图则保留，否则置空交给异步补图
       if (a.getTumbnailURL() == null || a.getTumbnailURL().isBlank()) {
         a.setTumbnailURL(null);
       }
     }
-    System.out.println("[web] saving articles...");
-    List<NewsArticle> saved = newsArticleRepository.saveAll(articles);
-    System.out.println("[web] saved: " + saved.size());
-
-    List<ThumbnailTask> tasks = new java.util.ArrayList<>();
-    for (NewsArticle a : saved) {
-      if (a.getTumbnailURL() != null && !a.getTumbnailURL().isBlank()) {
-        continue;
-      }
-      ThumbnailTask task = new ThumbnailTask();
-      task.setArticleId(a.getId());
-      task.setArticleUrl(a.getSourceURL());
-      task.setStatus("WAITING");
-      task.setAttempts(0);
-      task.setCreatedAt(java.time.LocalDateTime.now());
-      task.setUpdatedAt(java.time.LocalDateTime.now());
-      tasks.add(task);
-    }
-    if (!tasks.isEmpty()) {
-      System.out.println("[web] creating thumbnail tasks: " + tasks.size());
-      thumbnailTaskRepository.saveAll(tasks);
-    } else {
-      System.out.println("[web] no thumbnail tasks created");
-    }
-
-    return saved;
+    return articles;
   }
 
   @Async
@@ -0,0 +1,47 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+
+import jakarta.persistence.PostPersist;
+
+// NewsArticle 的实体监听器：任何入口插入文章后都把 url_hash 与标题指纹加入常驻去重索引
+// 由 Hibernate 通过 Spring 容器创建，因此可以注入 bean
+// @PostPersist 在事务提交前触发，加入索引推迟到 afterCommit：回滚的文章不会留在索引中
+// （标题索引不查库确认，残留的指纹会让重试的同一篇文章被判为重复）
+public class ArticleIndexListener {
+
+  @Autowired
+  private ArticleUrlIndex articleUrlIndex;
+  @Autowired
+  private TitleLshIndex titleLshIndex;
+
+  @PostPersist
+  public void afterInsert(NewsArticle article) {
+    String urlHash = article.getUrlHash();
+    String sourceName = article.getSourceName();
+    byte[] titleFingerprint = article.getTitleFingerprint();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      addToIndexes(urlHash, sourceName, titleFingerprint);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        addToIndexes(urlHash, sourceName, titleFingerprint);
+      }
+    });
+  }
+
+  private void addToIndexes(String urlHash, String sourceName, byte[] titleFingerprint) {
+    if (articleUrlIndex != null) {
+      articleUrlIndex.add(urlHash);
+    }
+    if (titleLshIndex != null) {
+      titleLshIndex.add(sourceName, titleFingerprint);
+    }
+  }
+}
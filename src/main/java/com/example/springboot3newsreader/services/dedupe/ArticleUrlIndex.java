@@ -0,0 +1,319 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+import com.example.springboot3newsreader.repositories.ArchivedNewsArticleRepository;
+import com.example.springboot3newsreader.repositories.BackfillMarkerRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// 常驻内存的文章 URL 索引（替代每次去重都把整列 sourceURL 读进 HashSet）
+// 以 UrlNormalizer 的 url_hash 为键：
+// 1) Bloom 过滤器在前：未命中即确定是新 URL，不加锁也不查库
+// 2) 其后是 64 位指纹（url_hash 的前 8 字节）的开放寻址 long 集合（每条约 16 字节），过滤掉 Bloom 的误判
+// 3) 指纹命中时再用一次 url_hash IN (...) 批量查询（走唯一索引）向数据库确认（文章被删除等情况）
+// 4) 启动后按 id 分页加载一次，顺带回填旧数据缺失的 url_hash（回填完成后写入 BackfillMarker，之后只加载不回填）；之后每次插入由 ArticleIndexListener 在事务提交后实时加入
+// 5) 归档表（news_article_archive）中的 url_hash 同样加载与确认，归档后的旧链接不会重新入库
+// 加载完成前（以及索引不可用时）退回到对候选哈希的批量 IN 查询
+@Component
+public class ArticleUrlIndex {
+
+  // IN 查询每批的哈希数
+  private static final int QUERY_CHUNK = 500;
+
+  @Autowired
+  private NewsArticleRepository newsArticleRepository;
+  @Autowired
+  private BackfillMarkerRepository backfillMarkerRepository;
+  @Autowired
+  private ArchivedNewsArticleRepository archivedNewsArticleRepository;
+
+  // Bloom 过滤器按该容量与误判率分配；实际条数超出后误判率上升，但指纹集合仍保证结果正确
+  @Value("${app.dedupe.url-index.expected-urls:1000000}")
+  private long expectedUrls;
+  @Value("${app.dedupe.url-index.false-positive-rate:0.01}")
+  private double falsePositiveRate;
+  @Value("${app.dedupe.url-index.load-page-size:5000}")
+  private int loadPageSize;
+
+  private BloomFilter bloom;
+  private final LongHashSet fingerprints = new LongHashSet();
+  private volatile boolean ready;
+
+  // 结构在启动时就建好：加载完成前的插入也会被记录，不会漏
+  @PostConstruct
+  void init() {
+    long capacity = Math.max(expectedUrls, 1024);
+    try {
+      capacity = Math.max(capacity, (newsArticleRepository.count() + archivedNewsArticleRepository.count()) * 2);
+    } catch (Exception e) {
+      System.err.println("[dedupe] failed to count articles for url index: " + e.getMessage());
+    }
+    bloom = new BloomFilter(capacity, falsePositiveRate);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long start = System.currentTimeMillis();
+    long afterId = 0;
+    long loaded = 0;
+    boolean backfilled = backfillMarkerRepository.isDone(BackfillMarker.URL_HASH);
+    Map<Long, String> missing = new LinkedHashMap<>();
+    try {
+      while (true) {
+        List<Object[]> rows = newsArticleRepository.findSourceUrlsAfterId(afterId,
+            PageRequest.of(0, Math.max(1, loadPageSize)));
+        if (rows == null || rows.isEmpty()) {
+          break;
+        }
+        for (Object[] row : rows) {
+          afterId = ((Number) row[0]).longValue();
+          String urlHash = (String) row[2];
+          if (urlHash == null) {
+            urlHash = UrlNormalizer.hash((String) row[1]);
+            if (urlHash != null && !backfilled) {
+              missing.put(afterId, urlHash);
+            }
+          }
+          add(urlHash);
+          loaded++;
+        }
+      }
+      loaded += loadArchived();
+      ready = true;
+      System.out.println("[dedupe] url index loaded: " + loaded + " urls in "
+          + (System.currentTimeMillis() - start) + "ms");
+      backfill(missing);
+    } catch (Exception e) {
+      System.err.println("[dedupe] failed to load url index, falling back to db lookups: " + e.getMessage());
+    }
+  }
+
+  private long loadArchived() {
+    long afterId = 0;
+    long loaded = 0;
+    while (true) {
+      List<Object[]> rows = archivedNewsArticleRepository.findUrlHashesAfterId(afterId,
+          PageRequest.of(0, Math.max(1, loadPageSize)));
+      if (rows == null || rows.isEmpty()) {
+        return loaded;
+      }
+      for (Object[] row : rows) {
+        afterId = ((Number) row[0]).longValue();
+        add((String) row[1]);
+        loaded++;
+      }
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  // 旧数据回填 url_hash：规范化后与已有行重复的保持为空（它们本来就是重复文章）
+  private void backfill(Map<Long, String> missing) {
+    if (missing.isEmpty()) {
+      backfillMarkerRepository.markDone(BackfillMarker.URL_HASH);
+      return;
+    }
+    Set<String> taken = queryExisting(new HashSet<>(missing.values()));
+    int updated = 0;
+    int duplicates = 0;
+    for (Map.Entry<Long, String> e : missing.entrySet()) {
+      if (!taken.add(e.getValue())) {
+        duplicates++;
+        continue;
+      }
+      try {
+        updated += newsArticleRepository.updateUrlHash(e.getKey(), e.getValue());
+      } catch (Exception ex) {
+        duplicates++;
+      }
+    }
+    System.out.println("[dedupe] url_hash backfilled: " + updated + " rows, duplicates left empty: " + duplicates);
+    backfillMarkerRepository.markDone(BackfillMarker.URL_HASH);
+  }
+
+  // 记录一个已入库的 url_hash
+  public void add(String urlHash) {
+    if (urlHash == null || bloom == null) {
+      return;
+    }
+    long fp = fingerprint(urlHash);
+    bloom.put(fp);
+    fingerprints.add(fp);
+  }
+
+  // 返回 urlHashes 中已经存在于数据库的那些
+  public Set<String> findExisting(Collection<String> urlHashes) {
+    Set<String> distinct = new LinkedHashSet<>();
+    for (String urlHash : urlHashes) {
+      if (urlHash != null) {
+        distinct.add(urlHash);
+      }
+    }
+    if (distinct.isEmpty()) {
+      return new HashSet<>();
+    }
+    if (!ready) {
+      return queryExisting(distinct);
+    }
+    List<String> suspects = new ArrayList<>();
+    for (String urlHash : distinct) {
+      long fp = fingerprint(urlHash);
+      if (bloom.mightContain(fp) && fingerprints.contains(fp)) {
+        suspects.add(urlHash);
+      }
+    }
+    return suspects.isEmpty() ? new HashSet<>() : queryExisting(suspects);
+  }
+
+  private Set<String> queryExisting(Collection<String> urlHashes) {
+    Set<String> existing = new HashSet<>();
+    List<String> chunk = new ArrayList<>(Math.min(urlHashes.size(), QUERY_CHUNK));
+    for (String urlHash : urlHashes) {
+      chunk.add(urlHash);
+      if (chunk.size() == QUERY_CHUNK) {
+        queryChunk(chunk, existing);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      queryChunk(chunk, existing);
+    }
+    return existing;
+  }
+
+  // 先查活跃表，剩下的再查归档表
+  private void queryChunk(List<String> chunk, Set<String> existing) {
+    List<String> found = newsArticleRepository.findExistingUrlHashes(chunk);
+    existing.addAll(found);
+    if (found.size() < chunk.size()) {
+      List<String> rest = new ArrayList<>(chunk);
+      rest.removeAll(found);
+      existing.addAll(archivedNewsArticleRepository.findExistingUrlHashes(rest));
+    }
+  }
+
+  // 64 位指纹：url_hash（十六进制）的前 16 位
+  static long fingerprint(String urlHash) {
+    return Long.parseUnsignedLong(urlHash.substring(0, 16), 16);
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  // 无锁 Bloom 过滤器：k 个位置由指纹双重哈希得到
+  private static class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long expected, double fpp) {
+      double p = fpp > 0 && fpp < 1 ? fpp : 0.01;
+      long bits = (long) Math.ceil(-expected * Math.log(p) / (Math.log(2) * Math.log(2)));
+      int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+      this.words = new AtomicLongArray(wordCount);
+      this.bitCount = wordCount * 64L;
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    void put(long fp) {
+      long h2 = mix(fp) | 1;
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(fp + i * h2, bitCount);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << (bit & 63);
+        long current = words.get(word);
+        while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+          current = words.get(word);
+        }
+      }
+    }
+
+    boolean mightContain(long fp) {
+      long h2 = mix(fp) | 1;
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(fp + i * h2, bitCount);
+        if ((words.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  // long 的开放寻址集合（线性探测，负载不超过 0.5）；0 作为空槽，指纹 0 映射为 1
+  private static class LongHashSet {
+    private long[] slots = new long[1 << 16];
+    private int size;
+
+    synchronized void add(long value) {
+      long v = value == 0 ? 1 : value;
+      if ((size + 1) * 2 > slots.length) {
+        resize();
+      }
+      if (insert(slots, v)) {
+        size++;
+      }
+    }
+
+    synchronized boolean contains(long value) {
+      long v = value == 0 ? 1 : value;
+      int mask = slots.length - 1;
+      for (int i = (int) mix(v) & mask; ; i = (i + 1) & mask) {
+        long slot = slots[i];
+        if (slot == 0) {
+          return false;
+        }
+        if (slot == v) {
+          return true;
+        }
+      }
+    }
+
+    private void resize() {
+      long[] next = new long[slots.length * 2];
+      for (long slot : slots) {
+        if (slot != 0) {
+          insert(next, slot);
+        }
+      }
+      slots = next;
+    }
+
+    private static boolean insert(long[] table, long v) {
+      int mask = table.length - 1;
+      for (int i = (int) mix(v) & mask; ; i = (i + 1) & mask) {
+        long slot = table[i];
+        if (slot == 0) {
+          table[i] = v;
+          return true;
+        }
+        if (slot == v) {
+          return false;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// 跨来源的报道聚类：多个源报道同一事件时给它们同一个 clusterId，列表 / 搜索可按簇折叠
+// 1) 标题 + 摘要经 TextShingler 分词（CJK 按双字），标题词权重 2、摘要词权重 1，计算 64 位 SimHash
+// 2) 与最近 window-size 篇文章比较，汉明距离 <= max-distance 即归入对方的簇
+// 3) 64 位按 max-distance + 1 段切分建桶：距离不超过阈值的两篇至少有一段完全相同，只比较同桶的候选
+// 4) 新簇的 id 为随机正 long；历史文章没有 clusterId 时以自身 id 作为簇 id（列表折叠同样按 coalesce(clusterId, id)）
+// 在流水线 dedupe 阶段对去重后的文章分配，索引按插入顺序淘汰最旧的条目
+@Component
+public class StoryClusterIndex {
+
+  @Autowired
+  private NewsArticleRepository newsArticleRepository;
+
+  @Value("${app.cluster.enabled:true}")
+  private boolean enabled;
+  @Value("${app.cluster.window-size:5000}")
+  private int windowSize;
+  @Value("${app.cluster.max-distance:3}")
+  private int maxDistance;
+
+  private int blocks;
+  private int blockBits;
+  private long[] hashes;
+  private long[] clusterIds;
+  private int head;
+  private int size;
+  private final Map<Long, ArrayDeque<Integer>> buckets = new HashMap<>();
+
+  @PostConstruct
+  void init() {
+    int distance = Math.max(0, Math.min(15, maxDistance));
+    blocks = distance + 1;
+    blockBits = 64 / blocks;
+    int capacity = Math.max(1, windowSize);
+    hashes = new long[capacity];
+    clusterIds = new long[capacity];
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      List<Object[]> rows = newsArticleRepository.findRecentForClustering(PageRequest.of(0, hashes.length));
+      // 查询按 id 倒序，按时间顺序加入
+      for (int i = rows.size() - 1; i >= 0; i--) {
+        Object[] row = rows.get(i);
+        long id = ((Number) row[0]).longValue();
+        long clusterId = row[3] != null ? ((Number) row[3]).longValue() : id;
+        synchronized (this) {
+          put(simHash((String) row[1], (String) row[2]), clusterId);
+        }
+      }
+      System.out.println("[cluster] story index loaded: " + rows.size() + " articles");
+    } catch (Exception e) {
+      System.err.println("[cluster] failed to load story index: " + e.getMessage());
+    }
+  }
+
+  // 为一批新文章分配 clusterId（批内文章之间也会互相归簇）
+  public synchronized void assign(List<NewsArticle> articles) {
+    if (!enabled) {
+      return;
+    }
+    for (NewsArticle a : articles) {
+      long hash = simHash(a.getTitle(), a.getSummary());
+      if (hash == 0) {
+        continue;
+      }
+      long clusterId = findCluster(hash);
+      if (clusterId == 0) {
+        clusterId = ThreadLocalRandom.current().nextLong(1L << 40, Long.MAX_VALUE);
+      }
+      a.setClusterId(clusterId);
+      put(hash, clusterId);
+    }
+  }
+
+  // 与同桶候选中汉明距离最小且不超过阈值的条目同簇；没有则返回 0
+  private long findCluster(long hash) {
+    long best = 0;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int b = 0; b < blocks; b++) {
+      ArrayDeque<Integer> bucket = buckets.get(bucketKey(b, hash));
+      if (bucket == null) {
+        continue;
+      }
+      for (int slot : bucket) {
+        int distance = Long.bitCount(hashes[slot] ^ hash);
+        if (distance <= maxDistance && distance < bestDistance) {
+          bestDistance = distance;
+          best = clusterIds[slot];
+        }
+      }
+    }
+    return best;
+  }
+
+  private void put(long hash, long clusterId) {
+    if (hash == 0) {
+      return;
+    }
+    int slot = head;
+    if (size == hashes.length) {
+      // 淘汰最旧的条目：各桶按插入顺序排列，队首就是它
+      for (int b = 0; b < blocks; b++) {
+        long key = bucketKey(b, hashes[slot]);
+        ArrayDeque<Integer> bucket = buckets.get(key);
+        if (bucket != null) {
+          bucket.pollFirst();
+          if (bucket.isEmpty()) {
+            buckets.remove(key);
+          }
+        }
+      }
+    } else {
+      size++;
+    }
+    hashes[slot] = hash;
+    clusterIds[slot] = clusterId;
+    for (int b = 0; b < blocks; b++) {
+      buckets.computeIfAbsent(bucketKey(b, hash), k -> new ArrayDeque<>()).addLast(slot);
+    }
+    head = (head + 1) % hashes.length;
+  }
+
+  private long bucketKey(int block, long hash) {
+    int shift = block * blockBits;
+    int bits = block == blocks - 1 ? 64 - shift : blockBits;
+    long value = bits == 64 ? hash : (hash >>> shift) & ((1L << bits) - 1);
+    return value * 31 + block;
+  }
+
+  // 标题词权重 2、摘要词权重 1 的 SimHash；没有任何词时返回 0
+  static long simHash(String title, String summary) {
+    int[] weights = new int[64];
+    int[] count = new int[1];
+    TextShingler.forEachToken(title, h -> {
+      addFeature(weights, h, 2);
+      count[0]++;
+    });
+    TextShingler.forEachToken(summary, h -> {
+      addFeature(weights, h, 1);
+      count[0]++;
+    });
+    if (count[0] == 0) {
+      return 0;
+    }
+    long hash = 0;
+    for (int i = 0; i < 64; i++) {
+      if (weights[i] > 0) {
+        hash |= 1L << i;
+      }
+    }
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static void addFeature(int[] weights, long h, int weight) {
+    for (int i = 0; i < 64; i++) {
+      weights[i] += ((h >>> i) & 1) != 0 ? weight : -weight;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// 单遍分词：输出每个词的 64 位哈希，不生成中间字符串
+// 1) 连续的字母 / 数字（非 CJK）为一个词，按小写计算哈希
+// 2) 连续的 CJK 字符（汉字、假名、谚文）按相邻两字切分（bigram），单字时取单字
+// 3) 其余字符（空白、标点、符号）都是分隔符
+// 不使用正则与 split，结果直接写入 long 数组
+public final class TextShingler {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private TextShingler() {
+  }
+
+  public static void forEachToken(String text, LongConsumer consumer) {
+    if (text == null) {
+      return;
+    }
+    int len = text.length();
+    int i = 0;
+    while (i < len) {
+      int cp = text.codePointAt(i);
+      int width = Character.charCount(cp);
+      if (isCjk(cp)) {
+        // CJK 连续段：相邻两字一组
+        int prev = cp;
+        int j = i + width;
+        boolean emitted = false;
+        while (j < len) {
+          int next = text.codePointAt(j);
+          if (!isCjk(next)) {
+            break;
+          }
+          consumer.accept(finish(step(step(FNV_OFFSET, prev), next)));
+          emitted = true;
+          prev = next;
+          j += Character.charCount(next);
+        }
+        if (!emitted) {
+          consumer.accept(finish(step(FNV_OFFSET, cp)));
+        }
+        i = j;
+      } else if (Character.isLetterOrDigit(cp)) {
+        long h = FNV_OFFSET;
+        int j = i;
+        while (j < len) {
+          int c = text.codePointAt(j);
+          if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+            break;
+          }
+          h = step(h, Character.toLowerCase(c));
+          j += Character.charCount(c);
+        }
+        consumer.accept(finish(h));
+        i = j;
+      } else {
+        i += width;
+      }
+    }
+  }
+
+  // 排序去重后的词哈希
+  public static long[] sortedTokens(String text) {
+    LongBuffer buffer = new LongBuffer();
+    forEachToken(text, buffer);
+    long[] tokens = buffer.values;
+    int n = buffer.size;
+    Arrays.sort(tokens, 0, n);
+    int distinct = 0;
+    for (int i = 0; i < n; i++) {
+      if (i == 0 || tokens[i] != tokens[i - 1]) {
+        tokens[distinct++] = tokens[i];
+      }
+    }
+    return Arrays.copyOf(tokens, distinct);
+  }
+
+  public static boolean isCjk(int cp) {
+    Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+    return script == Character.UnicodeScript.HAN
+        || script == Character.UnicodeScript.HIRAGANA
+        || script == Character.UnicodeScript.KATAKANA
+        || script == Character.UnicodeScript.HANGUL;
+  }
+
+  private static class LongBuffer implements LongConsumer {
+    private long[] values = new long[16];
+    private int size;
+
+    @Override
+    public void accept(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+
+  private static long step(long h, int cp) {
+    h ^= cp;
+    return h * FNV_PRIME;
+  }
+
+  private static long finish(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.util.Arrays;
+
+// 标题指纹：TextShingler 得到的排序去重词哈希，按 8 字节大端打包后存入 news_article.title_fingerprint
+// 入库时计算一次，之后的近似重复比较直接解码，不再对已存标题分词
+public final class TitleFingerprint {
+
+  // 最多保留的词数（列长度 = MAX_TOKENS * 8 字节）
+  public static final int MAX_TOKENS = 64;
+
+  private TitleFingerprint() {
+  }
+
+  // 标题的词哈希（与 decode(of(title)) 相同）
+  public static long[] tokens(String title) {
+    long[] tokens = TextShingler.sortedTokens(title);
+    return tokens.length > MAX_TOKENS ? Arrays.copyOf(tokens, MAX_TOKENS) : tokens;
+  }
+
+  // 标题为空或没有任何词时返回 null
+  public static byte[] of(String title) {
+    long[] tokens = tokens(title);
+    return tokens.length == 0 ? null : encode(tokens);
+  }
+
+  public static byte[] encode(long[] tokens) {
+    byte[] out = new byte[tokens.length * 8];
+    for (int i = 0; i < tokens.length; i++) {
+      long v = tokens[i];
+      for (int b = 7; b >= 0; b--) {
+        out[i * 8 + b] = (byte) v;
+        v >>>= 8;
+      }
+    }
+    return out;
+  }
+
+  public static long[] decode(byte[] fingerprint) {
+    if (fingerprint == null) {
+      return new long[0];
+    }
+    long[] tokens = new long[fingerprint.length / 8];
+    for (int i = 0; i < tokens.length; i++) {
+      long v = 0;
+      for (int b = 0; b < 8; b++) {
+        v = (v << 8) | (fingerprint[i * 8 + b] & 0xff);
+      }
+      tokens[i] = v;
+    }
+    return tokens;
+  }
+
+  // 两个有序去重数组的 Jaccard
+  public static double jaccard(long[] a, long[] b) {
+    if (a.length == 0 || b.length == 0) {
+      return 0.0;
+    }
+    int i = 0;
+    int j = 0;
+    int inter = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        inter++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    int union = a.length + b.length - inter;
+    return union == 0 ? 0.0 : (double) inter / (double) union;
+  }
+}
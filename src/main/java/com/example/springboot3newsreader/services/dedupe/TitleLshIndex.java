@@ -0,0 +1,255 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.models.BackfillMarker;
+import com.example.springboot3newsreader.repositories.BackfillMarkerRepository;
+import com.example.springboot3newsreader.repositories.NewsArticleRepository;
+
+// 按来源划分的标题近似重复索引（MinHash + LSH，替代对最近 500 条标题逐一算 Jaccard）
+// 1) 标题指纹（TitleFingerprint：排序去重的 64 位词哈希，入库时计算并存库）直接保存，用于最终的精确 Jaccard 校验
+// 2) 32 个 MinHash 分成 8 个 band（每 band 4 行）；任一 band 相同即为候选
+//    Jaccard 0.9 的标题落入同一候选的概率约 99.98%，0.2 的约 1%
+// 3) 只对候选做精确 Jaccard，覆盖每个来源最近的大量标题而不是最近 500 条
+// 4) 每个来源只保留最近 max-titles-per-source 条（环形窗口，最旧的自动失效），归档后的旧标题不会让内存无限增长
+// 5) 启动后按 id 分页加载一次（读取已存的指纹，旧数据缺失时回填，回填完成后写入 BackfillMarker）；之后每次插入由 ArticleIndexListener 在事务提交后实时加入
+// 每条标题约占 250 字节（词哈希 + 链表指针 + 桶槽位）
+@Component
+public class TitleLshIndex {
+
+  private static final int BANDS = 8;
+  private static final int ROWS = 4;
+  private static final int HASHES = BANDS * ROWS;
+  private static final long[] SEEDS = new long[HASHES];
+
+  static {
+    long z = 0x9e3779b97f4a7c15L;
+    for (int i = 0; i < HASHES; i++) {
+      z += 0x9e3779b97f4a7c15L;
+      SEEDS[i] = mix(z);
+    }
+  }
+
+  @Autowired
+  private NewsArticleRepository newsArticleRepository;
+  @Autowired
+  private BackfillMarkerRepository backfillMarkerRepository;
+
+  @Value("${app.dedupe.title-index.load-page-size:5000}")
+  private int loadPageSize;
+  @Value("${app.dedupe.title-index.max-titles-per-source:50000}")
+  private int maxTitlesPerSource;
+
+  private final ConcurrentHashMap<String, SourceIndex> bySource = new ConcurrentHashMap<>();
+  private volatile boolean ready;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long start = System.currentTimeMillis();
+    long afterId = 0;
+    long loaded = 0;
+    boolean backfilled = backfillMarkerRepository.isDone(BackfillMarker.TITLE_FINGERPRINT);
+    Map<Long, byte[]> missing = new LinkedHashMap<>();
+    try {
+      while (true) {
+        List<Object[]> rows = newsArticleRepository.findTitlesAfterId(afterId,
+            PageRequest.of(0, Math.max(1, loadPageSize)));
+        if (rows == null || rows.isEmpty()) {
+          break;
+        }
+        for (Object[] row : rows) {
+          afterId = ((Number) row[0]).longValue();
+          byte[] fingerprint = (byte[]) row[2];
+          if (fingerprint == null) {
+            fingerprint = TitleFingerprint.of((String) row[3]);
+            if (fingerprint != null && !backfilled) {
+              missing.put(afterId, fingerprint);
+            }
+          }
+          add((String) row[1], fingerprint);
+          loaded++;
+        }
+      }
+      ready = true;
+      System.out.println("[dedupe] title index loaded: " + loaded + " titles, " + bySource.size()
+          + " sources in " + (System.currentTimeMillis() - start) + "ms");
+      backfill(missing);
+    } catch (Exception e) {
+      System.err.println("[dedupe] failed to load title index, falling back to recent titles: " + e.getMessage());
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  // 旧数据回填 title_fingerprint，之后不再对已存标题分词
+  private void backfill(Map<Long, byte[]> missing) {
+    int updated = 0;
+    int failed = 0;
+    for (Map.Entry<Long, byte[]> e : missing.entrySet()) {
+      try {
+        updated += newsArticleRepository.updateTitleFingerprint(e.getKey(), e.getValue());
+      } catch (Exception ex) {
+        System.err.println("[dedupe] failed to backfill title fingerprint for " + e.getKey() + ": " + ex.getMessage());
+        failed++;
+      }
+    }
+    if (updated > 0) {
+      System.out.println("[dedupe] title_fingerprint backfilled: " + updated + " rows");
+    }
+    if (failed == 0) {
+      backfillMarkerRepository.markDone(BackfillMarker.TITLE_FINGERPRINT);
+    }
+  }
+
+  // 记录一条已入库标题的指纹
+  public void add(String sourceName, byte[] titleFingerprint) {
+    long[] tokens = TitleFingerprint.decode(titleFingerprint);
+    if (tokens.length == 0) {
+      return;
+    }
+    bySource.computeIfAbsent(sourceName == null ? "" : sourceName,
+        k -> new SourceIndex(Math.max(1, maxTitlesPerSource))).add(tokens);
+  }
+
+  // 同一来源下是否已有 Jaccard >= threshold 的标题
+  public boolean containsSimilar(String sourceName, long[] tokens, double threshold) {
+    if (tokens.length == 0) {
+      return false;
+    }
+    SourceIndex index = bySource.get(sourceName == null ? "" : sourceName);
+    return index != null && index.containsSimilar(tokens, threshold);
+  }
+
+  // 每个 band 的桶键：该 band 内 ROWS 个 MinHash 的组合哈希
+  private static int[] bandKeys(long[] tokens) {
+    int[] keys = new int[BANDS];
+    for (int band = 0; band < BANDS; band++) {
+      long key = band;
+      for (int row = 0; row < ROWS; row++) {
+        long seed = SEEDS[band * ROWS + row];
+        long min = Long.MAX_VALUE;
+        for (long token : tokens) {
+          long h = mix(token ^ seed);
+          if (h < min) {
+            min = h;
+          }
+        }
+        key = key * 0x100000001b3L + min;
+      }
+      keys[band] = (int) mix(key);
+    }
+    return keys;
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  // 单个来源的 LSH 表：最近 capacity 条标题的环形窗口
+  // 条目按插入序号 seq 存放在 seq % capacity；桶为开放寻址 (bandKey -> 链表头)，同桶条目通过 next 串起来
+  // 链表从新到旧，遇到窗口之外的序号即停止（被覆盖的条目不需要逐个摘链）；失效的桶在扩容时清理
+  private static class SourceIndex {
+    private final int capacity;
+    private long[][] entries = new long[64][];
+    // 链表指针与桶头存 seq + 1，0 表示空
+    private long[] next = new long[BANDS * 64];
+    private int[] slotKeys = new int[64];
+    private long[] slotHeads = new long[64];
+    private int usedSlots;
+    private long seq;
+
+    SourceIndex(int capacity) {
+      this.capacity = capacity;
+    }
+
+    synchronized void add(long[] tokens) {
+      if (seq >= entries.length && entries.length < capacity) {
+        int length = (int) Math.min(capacity, entries.length * 2L);
+        entries = Arrays.copyOf(entries, length);
+        next = Arrays.copyOf(next, length * BANDS);
+      }
+      int index = (int) (seq % capacity);
+      entries[index] = tokens;
+      int[] keys = bandKeys(tokens);
+      for (int band = 0; band < BANDS; band++) {
+        if ((usedSlots + 1) * 2 > slotKeys.length) {
+          rehash();
+        }
+        int slot = findSlot(slotKeys, slotHeads, keys[band]);
+        if (slotHeads[slot] == 0) {
+          slotKeys[slot] = keys[band];
+          usedSlots++;
+        }
+        next[index * BANDS + band] = isLive(slotHeads[slot]) ? slotHeads[slot] : 0;
+        slotHeads[slot] = seq + 1;
+      }
+      seq++;
+    }
+
+    synchronized boolean containsSimilar(long[] tokens, double threshold) {
+      int[] keys = bandKeys(tokens);
+      for (int band = 0; band < BANDS; band++) {
+        int slot = findSlot(slotKeys, slotHeads, keys[band]);
+        for (long e = slotHeads[slot]; isLive(e); e = next[(int) ((e - 1) % capacity) * BANDS + band]) {
+          if (TitleFingerprint.jaccard(tokens, entries[(int) ((e - 1) % capacity)]) >= threshold) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    // 指针（seq + 1）是否指向窗口内的条目
+    private boolean isLive(long pointer) {
+      return pointer != 0 && pointer - 1 >= seq - capacity;
+    }
+
+    // 丢掉链表头已失效的桶；清理后仍超过四分之一满才扩容
+    private void rehash() {
+      int live = 0;
+      for (int i = 0; i < slotKeys.length; i++) {
+        if (isLive(slotHeads[i])) {
+          live++;
+        }
+      }
+      int length = (live + BANDS) * 4 > slotKeys.length ? slotKeys.length * 2 : slotKeys.length;
+      int[] keys = new int[length];
+      long[] heads = new long[length];
+      for (int i = 0; i < slotKeys.length; i++) {
+        if (isLive(slotHeads[i])) {
+          int slot = findSlot(keys, heads, slotKeys[i]);
+          keys[slot] = slotKeys[i];
+          heads[slot] = slotHeads[i];
+        }
+      }
+      slotKeys = keys;
+      slotHeads = heads;
+      usedSlots = live;
+    }
+
+    // 返回 key 所在槽位，或应当插入的空槽位
+    private static int findSlot(int[] keys, long[] heads, int key) {
+      int mask = keys.length - 1;
+      for (int i = (int) mix(key) & mask; ; i = (i + 1) & mask) {
+        if (heads[i] == 0 || keys[i] == key) {
+          return i;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Set;
+
+// 文章 URL 规范化与哈希（news_article.url_hash 的唯一键）
+// 1) scheme / host 小写，去掉 www. 与默认端口，空路径补为 /
+// 2) 去掉 #fragment 与跟踪参数（utm_*、fbclid、gclid 等），其余参数保持原顺序
+// 3) 哈希取规范化结果 SHA-256 的前 16 字节（32 位十六进制）
+// 只做字符串级处理，不依赖 java.net.URI，带空格或中文的链接也能处理
+public final class UrlNormalizer {
+
+  private static final Set<String> TRACKING_PARAMS = Set.of(
+      "fbclid", "gclid", "gclsrc", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid",
+      "_hsenc", "_hsmi", "mkt_tok", "spm", "ref_src");
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private UrlNormalizer() {
+  }
+
+  public static String normalize(String url) {
+    if (url == null) {
+      return null;
+    }
+    String s = url.trim();
+    if (s.isEmpty()) {
+      return s;
+    }
+    int hash = s.indexOf('#');
+    if (hash >= 0) {
+      s = s.substring(0, hash);
+    }
+    String scheme = "";
+    String rest = s;
+    int schemeEnd = s.indexOf("://");
+    if (schemeEnd > 0) {
+      scheme = s.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+      rest = s.substring(schemeEnd + 3);
+    }
+
+    int authorityEnd = rest.length();
+    for (int i = 0; i < rest.length(); i++) {
+      char c = rest.charAt(i);
+      if (c == '/' || c == '?') {
+        authorityEnd = i;
+        break;
+      }
+    }
+    String authority = rest.substring(0, authorityEnd).toLowerCase(Locale.ROOT);
+    String pathAndQuery = rest.substring(authorityEnd);
+
+    if (authority.startsWith("www.")) {
+      authority = authority.substring(4);
+    }
+    if ("http".equals(scheme) && authority.endsWith(":80")) {
+      authority = authority.substring(0, authority.length() - 3);
+    } else if ("https".equals(scheme) && authority.endsWith(":443")) {
+      authority = authority.substring(0, authority.length() - 4);
+    }
+
+    String path = pathAndQuery;
+    String query = null;
+    int q = pathAndQuery.indexOf('?');
+    if (q >= 0) {
+      path = pathAndQuery.substring(0, q);
+      query = pathAndQuery.substring(q + 1);
+    }
+    if (path.isEmpty() && schemeEnd > 0) {
+      path = "/";
+    }
+
+    StringBuilder sb = new StringBuilder(s.length());
+    if (schemeEnd > 0) {
+      sb.append(scheme).append("://");
+    }
+    sb.append(authority).append(path);
+    String cleanedQuery = stripTrackingParams(query);
+    if (!cleanedQuery.isEmpty()) {
+      sb.append('?').append(cleanedQuery);
+    }
+    return sb.toString();
+  }
+
+  // 规范化后的哈希；url 为空时返回 null
+  public static String hash(String url) {
+    if (url == null || url.isBlank()) {
+      return null;
+    }
+    byte[] digest = sha256().digest(normalize(url).getBytes(StandardCharsets.UTF_8));
+    char[] out = new char[32];
+    for (int i = 0; i < 16; i++) {
+      out[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+      out[i * 2 + 1] = HEX[digest[i] & 0xf];
+    }
+    return new String(out);
+  }
+
+  private static String stripTrackingParams(String query) {
+    if (query == null || query.isEmpty()) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(query.length());
+    for (String param : query.split("&")) {
+      if (param.isEmpty()) {
+        continue;
+      }
+      int eq = param.indexOf('=');
+      String key = (eq >= 0 ? param.substring(0, eq) : param).toLowerCase(Locale.ROOT);
+      if (key.startsWith("utm_") || TRACKING_PARAMS.contains(key)) {
+        continue;
+      }
+      if (sb.length() > 0) {
+        sb.append('&');
+      }
+      sb.append(param);
+    }
+    return sb.toString();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
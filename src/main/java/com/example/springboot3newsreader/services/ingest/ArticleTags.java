@@ -0,0 +1,65 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// NewsArticle.tags 字符串 -> 规范化标签集合（写入 article_tag 表，搜索按标签走索引）
+// 各来源的格式不同：Twitter / 示例数据为 JSON 数组，网页抓取为逗号分隔（含 meta keywords）
+// 统一为去空白、小写、去重，超长的截断到 MAX_LENGTH
+public final class ArticleTags {
+
+  public static final int MAX_LENGTH = 100;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private ArticleTags() {
+  }
+
+  public static Set<String> parse(String tags) {
+    Set<String> result = new LinkedHashSet<>();
+    if (tags == null || tags.isBlank()) {
+      return result;
+    }
+    String val = tags.trim();
+    if (val.startsWith("[")) {
+      try {
+        JsonNode node = MAPPER.readTree(val);
+        if (node.isArray()) {
+          for (JsonNode item : node) {
+            add(result, item.asText(null));
+          }
+          return result;
+        }
+      } catch (Exception e) {
+        // 不是合法 JSON，按分隔符处理
+      }
+    }
+    for (String part : val.split("[,，;；]")) {
+      add(result, part);
+    }
+    return result;
+  }
+
+  // 单个标签的规范形式（搜索参数同样经过这里）；空白返回 null
+  public static String normalize(String tag) {
+    if (tag == null) {
+      return null;
+    }
+    String t = tag.trim().toLowerCase(Locale.ROOT);
+    if (t.isEmpty()) {
+      return null;
+    }
+    return t.length() > MAX_LENGTH ? t.substring(0, MAX_LENGTH) : t;
+  }
+
+  private static void add(Set<String> result, String tag) {
+    String t = normalize(tag);
+    if (t != null) {
+      result.add(t);
+    }
+  }
+}
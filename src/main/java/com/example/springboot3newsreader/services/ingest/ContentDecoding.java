@@ -0,0 +1,132 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// 抓取时的压缩传输：统一的 Accept-Encoding 与按 Content-Encoding 流式解压
+// 1) 只声明 JDK 能解的 gzip / deflate（brotli 需要额外依赖，不声明服务端就不会返回）
+// 2) deflate 有 zlib 包装与裸 deflate 两种实现，按前两个字节判断
+// 3) CountingInputStream 用于统计线上字节数与解压后的字节数
+public final class ContentDecoding {
+
+  public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+  private ContentDecoding() {
+  }
+
+  // 按 Content-Encoding（可为空、可为逗号分隔的多层编码）包装解压流
+  public static InputStream decode(InputStream in, String contentEncoding) throws IOException {
+    if (contentEncoding == null || contentEncoding.isBlank()) {
+      return in;
+    }
+    String[] codings = contentEncoding.split(",");
+    InputStream result = in;
+    // 多层编码按声明的逆序解
+    for (int i = codings.length - 1; i >= 0; i--) {
+      String coding = codings[i].trim().toLowerCase();
+      switch (coding) {
+        case "gzip":
+        case "x-gzip":
+          result = new GZIPInputStream(result, 8192);
+          break;
+        case "deflate":
+          result = inflate(result);
+          break;
+        case "identity":
+        case "":
+          break;
+        default:
+          throw new IOException("unsupported Content-Encoding: " + coding);
+      }
+    }
+    return result;
+  }
+
+  private static InputStream inflate(InputStream in) throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(in, 8192);
+    buffered.mark(2);
+    int b0 = buffered.read();
+    int b1 = buffered.read();
+    buffered.reset();
+    boolean zlibWrapped = b0 >= 0 && b1 >= 0 && (b0 & 0x0F) == 8 && ((b0 << 8) | b1) % 31 == 0;
+    return new OwnedInflaterInputStream(buffered, new Inflater(!zlibWrapped));
+  }
+
+  // 自带 Inflater 的解压流：InflaterInputStream 不会释放外部传入的 Inflater，关闭时手动 end() 归还本地内存
+  private static class OwnedInflaterInputStream extends InflaterInputStream {
+
+    OwnedInflaterInputStream(InputStream in, Inflater inflater) {
+      super(in, inflater, 8192);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        inf.end();
+      }
+    }
+  }
+
+  // 统计读过的字节数；设置了 limit 时超过上限直接抛 IOException（防止超大响应或压缩炸弹耗尽内存）
+  public static class CountingInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+
+    public CountingInputStream(InputStream in) {
+      this(in, Long.MAX_VALUE);
+    }
+
+    public CountingInputStream(InputStream in, long limit) {
+      super(in);
+      this.limit = limit <= 0 ? Long.MAX_VALUE : limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        add(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int n = super.read(buf, off, len);
+      if (n > 0) {
+        add(n);
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      add(skipped);
+      return skipped;
+    }
+
+    private void add(long n) throws IOException {
+      count += n;
+      if (count > limit) {
+        throw new IOException("body exceeds " + limit + " bytes");
+      }
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// 响应体的读取期限：HttpRequest.timeout 只限制等待响应头，响应头之后停住的源由这里兜底
+// 1) idle：连续 idleTimeoutMs 没有读到任何字节；total：从收到响应头起超过 totalTimeoutMs
+// 2) 到期时关闭底层流、执行 onExpire（归还 host / 全局许可），之后再中断正阻塞在 read 上的线程
+//    （HttpClient 的响应流被关闭时不会唤醒已阻塞的读取）；中断标记在 read 返回前清除，不会带回工作线程
+// 3) 到期之后的 read 一律抛出 IOException
+public class DeadlineInputStream extends FilterInputStream {
+
+  private final long idleNanos;
+  private final long deadlineNanos;
+  private final Runnable onExpire;
+  private final ScheduledFuture<?> watchdog;
+  private volatile long lastProgressNanos;
+
+  // 以下字段由 this 保护
+  private Thread reader;
+  private boolean readerInterrupted;
+  private String expiredReason;
+
+  public DeadlineInputStream(InputStream in, ScheduledExecutorService scheduler, long idleTimeoutMs,
+      long totalTimeoutMs, Runnable onExpire) {
+    super(in);
+    long now = System.nanoTime();
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+    this.deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMs);
+    this.onExpire = onExpire;
+    this.lastProgressNanos = now;
+    long period = Math.max(10, Math.min(idleTimeoutMs, totalTimeoutMs) / 4);
+    this.watchdog = scheduler.scheduleWithFixedDelay(this::check, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public int read() throws IOException {
+    enter();
+    try {
+      int b = super.read();
+      lastProgressNanos = System.nanoTime();
+      return b;
+    } catch (IOException e) {
+      throw translate(e);
+    } finally {
+      exit();
+    }
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws IOException {
+    enter();
+    try {
+      int n = super.read(buf, off, len);
+      lastProgressNanos = System.nanoTime();
+      return n;
+    } catch (IOException e) {
+      throw translate(e);
+    } finally {
+      exit();
+    }
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    enter();
+    try {
+      long skipped = super.skip(n);
+      lastProgressNanos = System.nanoTime();
+      return skipped;
+    } catch (IOException e) {
+      throw translate(e);
+    } finally {
+      exit();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchdog.cancel(false);
+    super.close();
+  }
+
+  private synchronized void enter() throws IOException {
+    if (expiredReason != null) {
+      throw new IOException("response body " + expiredReason);
+    }
+    reader = Thread.currentThread();
+  }
+
+  private synchronized void exit() {
+    reader = null;
+    if (readerInterrupted) {
+      // 清除 expire() 设置的中断标记
+      Thread.interrupted();
+      readerInterrupted = false;
+    }
+  }
+
+  private synchronized IOException translate(IOException e) {
+    return expiredReason == null ? e : new IOException("response body " + expiredReason, e);
+  }
+
+  private void check() {
+    long now = System.nanoTime();
+    if (now - deadlineNanos >= 0) {
+      expire("exceeded total timeout");
+    } else if (now - lastProgressNanos >= idleNanos) {
+      expire("idle timeout");
+    }
+  }
+
+  // 先关闭流、归还许可，再唤醒阻塞的读取线程：读取方收到异常时许可已经归还
+  private void expire(String reason) {
+    synchronized (this) {
+      if (expiredReason != null) {
+        return;
+      }
+      // 之后不会再有线程进入 read
+      expiredReason = reason;
+    }
+    watchdog.cancel(false);
+    try {
+      in.close();
+    } catch (IOException e) {
+      // ignore
+    }
+    onExpire.run();
+    synchronized (this) {
+      if (reader != null) {
+        reader.interrupt();
+        readerInterrupted = true;
+      }
+    }
+  }
+}
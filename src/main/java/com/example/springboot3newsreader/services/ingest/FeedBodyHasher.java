@@ -0,0 +1,130 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// 边读边计算响应体的 SHA-256，用于识别不支持条件 GET 的源返回的“未变化”内容
+// 1) rawHash：原始字节
+// 2) normalizedHash：跳过 <lastBuildDate>...</lastBuildDate> 的内容（RSSHub 每次请求都会刷新它）
+public class FeedBodyHasher extends FilterInputStream {
+
+  private static final byte[] OPEN_TAG = "<lastBuildDate".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] CLOSE_TAG = "</lastBuildDate>".getBytes(StandardCharsets.US_ASCII);
+
+  private final MessageDigest raw;
+  private final MessageDigest normalized;
+  private int openMatched;
+  private int closeMatched;
+  private boolean skipping;
+  private long bytesRead;
+
+  public FeedBodyHasher(InputStream in) {
+    super(in);
+    this.raw = sha256();
+    this.normalized = sha256();
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b >= 0) {
+      update(new byte[] { (byte) b }, 0, 1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws IOException {
+    int n = super.read(buf, off, len);
+    if (n > 0) {
+      update(buf, off, n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    // 跳过的字节也必须计入哈希
+    byte[] buf = new byte[(int) Math.min(8192, Math.max(1, n))];
+    long skipped = 0;
+    while (skipped < n) {
+      int r = read(buf, 0, (int) Math.min(buf.length, n - skipped));
+      if (r < 0) {
+        break;
+      }
+      skipped += r;
+    }
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  // 解析器可能在根元素结束后就停止读取，剩余字节读完才能得到完整哈希
+  public void drain() throws IOException {
+    byte[] buf = new byte[8192];
+    while (read(buf, 0, buf.length) != -1) {
+      // keep reading
+    }
+  }
+
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  // 只能调用一次（digest 会重置）
+  public String rawHash() {
+    return HexFormat.of().formatHex(raw.digest());
+  }
+
+  // 只能调用一次（digest 会重置）
+  public String normalizedHash() {
+    return HexFormat.of().formatHex(normalized.digest());
+  }
+
+  private void update(byte[] buf, int off, int len) {
+    bytesRead += len;
+    raw.update(buf, off, len);
+    int runStart = skipping ? -1 : off;
+    for (int i = off; i < off + len; i++) {
+      byte b = buf[i];
+      if (!skipping) {
+        openMatched = b == OPEN_TAG[openMatched] ? openMatched + 1 : (b == OPEN_TAG[0] ? 1 : 0);
+        if (openMatched == OPEN_TAG.length) {
+          // 标签名本身计入，之后的内容跳过
+          normalized.update(buf, runStart, i + 1 - runStart);
+          skipping = true;
+          openMatched = 0;
+          closeMatched = 0;
+          runStart = -1;
+        }
+      } else {
+        closeMatched = b == CLOSE_TAG[closeMatched] ? closeMatched + 1 : (b == CLOSE_TAG[0] ? 1 : 0);
+        if (closeMatched == CLOSE_TAG.length) {
+          normalized.update(CLOSE_TAG);
+          skipping = false;
+          closeMatched = 0;
+          runStart = i + 1;
+        }
+      }
+    }
+    if (!skipping && runStart >= 0 && runStart < off + len) {
+      normalized.update(buf, runStart, off + len - runStart);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.services.ingest.ContentDecoding.CountingInputStream;
+import com.example.springboot3newsreader.services.ingest.IngestExecutor.Lease;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// RSS 抓取共用的 HttpClient：
+// 1) 全局单例，连接池内的 keep-alive 连接在各 feed 之间复用
+// 2) https 源优先协商 HTTP/2，http 源固定走 HTTP/1.1（避免 h2c upgrade 兼容问题）
+// 3) sendAsync 非阻塞，在途请求数受 IngestExecutor 的 host / 全局许可约束
+// 4) 响应体以 InputStream 返回，调用方可边读边解析，不必把整份 XML 读进内存
+// 5) 声明 Accept-Encoding: gzip, deflate，响应体在流上边读边解压，并统计线上 / 解压后字节数
+// 6) request-timeout 只限制等待响应头；响应体另有空闲 / 总时长期限（DeadlineInputStream），到期关闭流并归还许可
+// 7) 解压后的字节数有上限（max-body-bytes），超过时读取抛错、本次抓取失败，两种解析模式都不会读入无界的响应体
+@Component
+public class FeedHttpClient {
+
+  @Value("${app.ingest.http.connect-timeout-ms:5000}")
+  private int connectTimeoutMs;
+  @Value("${app.ingest.http.request-timeout-ms:10000}")
+  private int requestTimeoutMs;
+  @Value("${app.ingest.http.body-idle-timeout-ms:10000}")
+  private long bodyIdleTimeoutMs;
+  @Value("${app.ingest.http.body-timeout-ms:60000}")
+  private long bodyTimeoutMs;
+  @Value("${app.ingest.http.max-body-bytes:10485760}")
+  private long maxBodyBytes;
+  @Autowired
+  private IngestExecutor ingestExecutor;
+
+  private HttpClient httpClient;
+  private ScheduledExecutorService bodyDeadlines;
+
+  @PostConstruct
+  void init() {
+    HttpClient.Builder builder = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+    // 虚拟线程模式下，响应回调（解析、入库）也跑在虚拟线程上
+    if (ingestExecutor.asyncExecutor() != null) {
+      builder.executor(ingestExecutor.asyncExecutor());
+    }
+    httpClient = builder.build();
+    bodyDeadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "feed-body-deadline");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    bodyDeadlines.shutdownNow();
+  }
+
+  // 发起条件 GET（etag / lastModified 可为空），304 作为正常结果返回
+  public CompletableFuture<FeedResponse> fetch(String url, String etag, String lastModified) {
+    final URI uri;
+    try {
+      uri = URI.create(url.trim());
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMillis(requestTimeoutMs))
+        .header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING)
+        .GET();
+    if ("http".equalsIgnoreCase(uri.getScheme())) {
+      builder.version(HttpClient.Version.HTTP_1_1);
+    }
+    if (etag != null) {
+      builder.header("If-None-Match", etag);
+    }
+    if (lastModified != null) {
+      builder.header("If-Modified-Since", lastModified);
+    }
+    HttpRequest request = builder.build();
+
+    // 响应体以流的形式交给调用方；许可一直持有到流被读完关闭，
+    // 这样同一 host 同时在传输的连接数也受上限约束
+    return ingestExecutor.acquire(IngestExecutor.hostKey(uri)).thenCompose(permit ->
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            .whenComplete((response, error) -> {
+              if (error != null) {
+                permit.release();
+              }
+            })
+            .thenApply(response -> toFeedResponse(url, response, permit)));
+  }
+
+  private FeedResponse toFeedResponse(String url, HttpResponse<InputStream> response, Lease permit) {
+    int status = response.statusCode();
+    if (status == 304 || status < 200 || status >= 300) {
+      closeQuietly(response.body());
+      permit.release();
+      if (status != 304) {
+        throw new UncheckedIOException(new IOException("HTTP " + status + " for " + url));
+      }
+      return new FeedResponse(status, null, null, InputStream.nullInputStream(), null, null);
+    }
+    // 读取期限 -> 线上字节 -> 解压 -> 解压后字节（有上限）；关闭或到期时归还许可
+    DeadlineInputStream limited = new DeadlineInputStream(response.body(), bodyDeadlines,
+        bodyIdleTimeoutMs, bodyTimeoutMs, () -> {
+          System.err.println("[ingest] response body timed out, closing: " + url);
+          permit.release();
+        });
+    CountingInputStream wire = new CountingInputStream(limited);
+    CountingInputStream decoded;
+    try {
+      decoded = new CountingInputStream(
+          ContentDecoding.decode(wire, response.headers().firstValue("Content-Encoding").orElse(null)),
+          maxBodyBytes);
+    } catch (IOException e) {
+      closeQuietly(wire);
+      permit.release();
+      throw new UncheckedIOException(e);
+    }
+    InputStream body = new FilterInputStream(decoded) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          permit.release();
+        }
+      }
+    };
+    return new FeedResponse(
+        status,
+        response.headers().firstValue("ETag").orElse(null),
+        response.headers().firstValue("Last-Modified").orElse(null),
+        body, wire, decoded);
+  }
+
+  private void closeQuietly(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+  // 调用方负责关闭（try-with-resources），关闭时归还 host 许可
+  public static class FeedResponse implements Closeable {
+    private final int status;
+    private final String etag;
+    private final String lastModified;
+    private final InputStream body;
+    private final CountingInputStream wire;
+    private final CountingInputStream decoded;
+
+    public FeedResponse(int status, String etag, String lastModified, InputStream body,
+        CountingInputStream wire, CountingInputStream decoded) {
+      this.status = status;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.body = body;
+      this.wire = wire;
+      this.decoded = decoded;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    public boolean isNotModified() {
+      return status == 304;
+    }
+
+    public String getEtag() {
+      return etag;
+    }
+
+    public String getLastModified() {
+      return lastModified;
+    }
+
+    public InputStream getBody() {
+      return body;
+    }
+
+    // 目前为止从网络读到的字节数（压缩后）
+    public long getWireBytes() {
+      return wire == null ? 0 : wire.getCount();
+    }
+
+    // 目前为止解压后的字节数
+    public long getDecodedBytes() {
+      return decoded == null ? 0 : decoded.getCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+      body.close();
+    }
+  }
+}
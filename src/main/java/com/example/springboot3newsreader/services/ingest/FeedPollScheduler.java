@@ -0,0 +1,244 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.models.FeedItem;
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.repositories.FeedItemRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// 按 feed 自适应的抓取调度（替代固定的 0/30 分 cron）
+// 1) 每个 FeedItem 记录 nextPollAt，定时 tick 只抓到期的源
+// 2) 间隔 = 约每次抓到 1 条新条目所需的时间（按新条目速率的指数平均估算）
+//    连续没有新条目（304 / 内容未变 / 全部重复）时按 1.5 倍退避，失败时翻倍
+// 3) 下限取 min-interval、rss_sources.csv 的 Update Frequency、feed 自带的 <ttl> / sy:updatePeriod 三者最大值
+// 4) 首次调度按 feed id 的哈希把相位均匀铺开在整个间隔内，之后每次加 ±10% 抖动，避免整点扎堆
+@Component
+public class FeedPollScheduler {
+
+  private static final double RATE_ALPHA = 0.3;
+  private static final double BACKOFF = 1.5;
+  private static final double JITTER = 0.1;
+
+  @Autowired
+  private FeedItemRepository feedItemRepository;
+  @Autowired
+  private ResourceLoader resourceLoader;
+
+  @Value("${app.ingest.schedule.min-interval-minutes:10}")
+  private int minIntervalMinutes;
+  @Value("${app.ingest.schedule.max-interval-minutes:1440}")
+  private int maxIntervalMinutes;
+  @Value("${app.ingest.schedule.default-interval-minutes:30}")
+  private int defaultIntervalMinutes;
+  // 为空则不使用 csv 中的更新频率
+  @Value("${app.ingest.schedule.frequency-csv:}")
+  private String frequencyCsv;
+
+  // csv 中的更新频率：按 RSS 地址匹配，其次按名称
+  private final Map<String, Integer> floorByUrl = new HashMap<>();
+  private final Map<String, Integer> floorByName = new HashMap<>();
+
+  @PostConstruct
+  void loadFrequencyCsv() {
+    if (frequencyCsv == null || frequencyCsv.isBlank()) {
+      return;
+    }
+    Resource resource = resourceLoader.getResource(frequencyCsv);
+    if (!resource.exists()) {
+      System.out.println("[schedule] frequency csv not found, skipping: " + frequencyCsv);
+      return;
+    }
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+      String header = reader.readLine();
+      if (header == null) {
+        return;
+      }
+      // 简单按逗号切分（当前 csv 没有带引号的字段）
+      List<String> columns = List.of(header.replace("\uFEFF", "").split(",", -1));
+      int nameCol = columns.indexOf("Name");
+      int urlCol = columns.indexOf("RSS Source");
+      int freqCol = columns.indexOf("Update Frequency");
+      if (freqCol < 0) {
+        return;
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] cells = line.split(",", -1);
+        if (cells.length <= freqCol) {
+          continue;
+        }
+        Integer floor = frequencyFloorMinutes(cells[freqCol]);
+        if (floor == null) {
+          continue;
+        }
+        if (urlCol >= 0 && urlCol < cells.length && !cells[urlCol].isBlank()) {
+          floorByUrl.put(cells[urlCol].trim(), floor);
+        }
+        if (nameCol >= 0 && nameCol < cells.length && !cells[nameCol].isBlank()) {
+          floorByName.put(cells[nameCol].trim(), floor);
+        }
+      }
+      System.out.println("[schedule] loaded update frequency for " + floorByUrl.size() + " feeds");
+    } catch (Exception e) {
+      System.err.println("[schedule] failed to read frequency csv: " + e.getMessage());
+    }
+  }
+
+  // 从已启用的源中挑出到期的；还没有排期的源先按哈希相位排期（不立即抓，避免启动时扎堆）
+  public List<FeedItem> dueFeeds(List<FeedItem> feeds) {
+    LocalDateTime now = LocalDateTime.now();
+    List<FeedItem> due = new ArrayList<>();
+    for (FeedItem feed : feeds) {
+      if (feed.getNextPollAt() == null) {
+        int interval = currentInterval(feed);
+        long phaseSeconds = Math.floorMod(phaseKey(feed).hashCode(), interval * 60L);
+        feed.setPollIntervalMinutes(interval);
+        feed.setNextPollAt(now.plusSeconds(phaseSeconds));
+        feedItemRepository.save(feed);
+        continue;
+      }
+      if (!feed.getNextPollAt().isAfter(now)) {
+        due.add(feed);
+      }
+    }
+    return due;
+  }
+
+  // 一次抓取结束后更新排期；saved 为 null 表示抓取失败
+  public void recordPoll(FeedItem feed, List<NewsArticle> saved) {
+    LocalDateTime now = LocalDateTime.now();
+    int current = currentInterval(feed);
+    double target;
+    if (saved == null) {
+      target = current * 2.0;
+    } else {
+      int newItems = saved.size();
+      if (feed.getLastPolledAt() != null) {
+        double hours = Math.max(1.0 / 60, Duration.between(feed.getLastPolledAt(), now).toSeconds() / 3600.0);
+        double sample = newItems / hours;
+        Double rate = feed.getNewItemsPerHour();
+        feed.setNewItemsPerHour(rate == null ? sample : RATE_ALPHA * sample + (1 - RATE_ALPHA) * rate);
+      }
+      int streak = newItems == 0 ? nullToZero(feed.getUnchangedStreak()) + 1 : 0;
+      feed.setUnchangedStreak(streak);
+
+      Double rate = feed.getNewItemsPerHour();
+      target = rate != null && rate > 0 ? 60.0 / rate : current * BACKOFF;
+      if (streak > 0) {
+        target = Math.max(target, current * BACKOFF);
+      }
+    }
+    int next = clamp((int) Math.round(target), floorMinutes(feed));
+    double jitter = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+    feed.setPollIntervalMinutes(next);
+    feed.setLastPolledAt(now);
+    feed.setNextPollAt(now.plusSeconds(Math.round(next * 60 * jitter)));
+    try {
+      feedItemRepository.save(feed);
+    } catch (Exception e) {
+      System.err.println("[schedule] failed to save poll state for " + feed.getName() + ": " + e.getMessage());
+    }
+  }
+
+  // feed 自带的更新周期（分钟）：<ttl> 优先，其次 sy:updatePeriod / sy:updateFrequency
+  public static Integer publisherIntervalMinutes(Integer ttl, String updatePeriod, Integer updateFrequency) {
+    if (ttl != null && ttl > 0) {
+      return ttl;
+    }
+    if (updatePeriod == null) {
+      return null;
+    }
+    int periodMinutes;
+    switch (updatePeriod.trim().toLowerCase()) {
+      case "hourly":
+        periodMinutes = 60;
+        break;
+      case "daily":
+        periodMinutes = 1440;
+        break;
+      case "weekly":
+        periodMinutes = 10080;
+        break;
+      case "monthly":
+        periodMinutes = 43200;
+        break;
+      case "yearly":
+        periodMinutes = 525600;
+        break;
+      default:
+        return null;
+    }
+    int frequency = updateFrequency != null && updateFrequency > 0 ? updateFrequency : 1;
+    return Math.max(1, periodMinutes / frequency);
+  }
+
+  // csv 中 Update Frequency 对应的最小间隔；“其他”或空白不设下限
+  private static Integer frequencyFloorMinutes(String value) {
+    switch (value.trim()) {
+      case "日":
+      case "每日":
+        return 120;
+      case "周":
+      case "每周":
+        return 720;
+      case "月":
+      case "每月":
+        return 1440;
+      default:
+        return null;
+    }
+  }
+
+  private int currentInterval(FeedItem feed) {
+    if (feed.getPollIntervalMinutes() != null && feed.getPollIntervalMinutes() > 0) {
+      return feed.getPollIntervalMinutes();
+    }
+    return clamp(defaultIntervalMinutes, floorMinutes(feed));
+  }
+
+  private int floorMinutes(FeedItem feed) {
+    int floor = minIntervalMinutes;
+    Integer csvFloor = feed.getUrl() != null ? floorByUrl.get(feed.getUrl().trim()) : null;
+    if (csvFloor == null && feed.getName() != null) {
+      csvFloor = floorByName.get(feed.getName().trim());
+    }
+    if (csvFloor != null) {
+      floor = Math.max(floor, csvFloor);
+    }
+    if (feed.getPublisherTtlMinutes() != null) {
+      floor = Math.max(floor, feed.getPublisherTtlMinutes());
+    }
+    return floor;
+  }
+
+  private int clamp(int minutes, int floor) {
+    int max = Math.max(1, maxIntervalMinutes);
+    return Math.min(max, Math.max(Math.min(floor, max), minutes));
+  }
+
+  private String phaseKey(FeedItem feed) {
+    return feed.getId() != null ? feed.getId().toString() : String.valueOf(feed.getUrl());
+  }
+
+  private int nullToZero(Integer value) {
+    return value == null ? 0 : value;
+  }
+}
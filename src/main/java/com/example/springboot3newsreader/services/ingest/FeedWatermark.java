@@ -0,0 +1,87 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import com.example.springboot3newsreader.models.FeedItem;
+
+// 单个 feed 的条目高水位（一次抓取内使用，非线程安全）
+// 1) isSeen：发布时间早于水位，或与水位同一时刻且 guid/link 相同 -> 已处理过
+//    没有发布时间的条目只能按 guid/link 判断
+// 2) observe：记录本次见到的最新条目，入库成功后 applyTo 写回 FeedItem
+public class FeedWatermark {
+
+  private static final int MAX_KEY_LENGTH = 1024;
+
+  private final Instant publishedAt;
+  private final String entryKey;
+
+  private Instant newestAt;
+  private String newestKey;
+  private int skipped;
+
+  public FeedWatermark(Instant publishedAt, String entryKey) {
+    this.publishedAt = publishedAt;
+    this.entryKey = entryKey;
+    this.newestAt = publishedAt;
+    this.newestKey = entryKey;
+  }
+
+  public static FeedWatermark of(FeedItem feedItem) {
+    Instant at = null;
+    if (feedItem.getWatermarkPublishedAt() != null) {
+      try {
+        at = Instant.parse(feedItem.getWatermarkPublishedAt());
+      } catch (DateTimeParseException e) {
+        at = null;
+      }
+    }
+    return new FeedWatermark(at, feedItem.getWatermarkEntryKey());
+  }
+
+  public boolean isSeen(Date entryPublishedDate, String key) {
+    boolean seen = false;
+    if (entryPublishedDate == null || publishedAt == null) {
+      seen = key != null && key.equals(entryKey);
+    } else {
+      Instant at = entryPublishedDate.toInstant();
+      seen = at.isBefore(publishedAt) || (at.equals(publishedAt) && key != null && key.equals(entryKey));
+    }
+    if (seen) {
+      skipped++;
+    }
+    return seen;
+  }
+
+  public void observe(Date entryPublishedDate, String key) {
+    if (entryPublishedDate == null) {
+      return;
+    }
+    // 未来时间的条目（时区错误等）按当前时间计，避免水位被推到未来
+    Instant at = entryPublishedDate.toInstant();
+    Instant now = Instant.now();
+    if (at.isAfter(now)) {
+      at = now;
+    }
+    if (newestAt == null || at.isAfter(newestAt)) {
+      newestAt = at;
+      newestKey = key;
+    }
+  }
+
+  public int getSkipped() {
+    return skipped;
+  }
+
+  // 返回水位是否前进
+  public boolean applyTo(FeedItem feedItem) {
+    if (newestAt == null || newestAt.equals(publishedAt)) {
+      return false;
+    }
+    feedItem.setWatermarkPublishedAt(newestAt.toString());
+    // 超长的 key 不保存，此时只按发布时间判断
+    feedItem.setWatermarkEntryKey(newestKey != null && newestKey.length() <= MAX_KEY_LENGTH ? newestKey : null);
+    return true;
+  }
+}
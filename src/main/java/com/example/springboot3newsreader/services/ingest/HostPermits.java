@@ -0,0 +1,84 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 按 host 限制同时在途的异步请求数
+// 拿不到许可的请求进入该 host 的 FIFO 队列，前一个请求释放许可时放行，排队期间不占用线程
+// 放行交给 handoff 执行器：release 常在 HttpClient 回调或读取期限的定时线程上调用，
+// 排队者拿到许可后的后续阶段不能在这些线程上内联执行
+public class HostPermits {
+
+  private final int permitsPerHost;
+  private final Executor handoff;
+  private final ConcurrentMap<String, Gate> gates = new ConcurrentHashMap<>();
+
+  public HostPermits(int permitsPerHost, Executor handoff) {
+    this.permitsPerHost = Math.max(1, permitsPerHost);
+    this.handoff = handoff;
+  }
+
+  // 返回的 future 在拿到许可时完成；调用方用完后必须 release
+  public CompletableFuture<Permit> acquire(String host) {
+    Gate gate = gates.computeIfAbsent(host == null ? "" : host, k -> new Gate());
+    CompletableFuture<Permit> result = new CompletableFuture<>();
+    gate.enter(() -> result.complete(new Permit(gate)));
+    return result;
+  }
+
+  public static class Permit {
+    private final Gate gate;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private Permit(Gate gate) {
+      this.gate = gate;
+    }
+
+    // 幂等：重复释放不会多还许可
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        gate.leave();
+      }
+    }
+  }
+
+  private class Gate {
+    private int inFlight;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+
+    void enter(Runnable start) {
+      synchronized (this) {
+        if (inFlight >= permitsPerHost) {
+          waiting.addLast(start);
+          return;
+        }
+        inFlight++;
+      }
+      start.run();
+    }
+
+    void leave() {
+      Runnable next;
+      synchronized (this) {
+        next = waiting.pollFirst();
+        if (next == null) {
+          inFlight--;
+          return;
+        }
+      }
+      // 许可直接转交给队首请求，在 handoff 线程上放行
+      try {
+        handoff.execute(next);
+      } catch (RejectedExecutionException e) {
+        // 执行器已关闭（停机中），只能就地放行
+        next.run();
+      }
+    }
+  }
+}
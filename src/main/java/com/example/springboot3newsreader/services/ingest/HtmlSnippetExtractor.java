@@ -0,0 +1,348 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.util.Set;
+
+import org.jsoup.nodes.Entities;
+
+// RSS description 的轻量提取器：只扫描一遍 HTML 字符串，不构建 DOM
+// 1) 第一张 <img> 的 src（与 Jsoup selectFirst("img").attr("src") 一致：只看第一张）
+// 2) 前 maxChars 个字符的纯文本（空白折叠、实体解码、跳过 script/style，块级标签处补空格，与 Jsoup text() 一致）
+// 两者都拿到后立即停止，长篇正文（TLDR、Meta Newsroom 等）不必扫完
+public final class HtmlSnippetExtractor {
+
+  // Jsoup 中按块级处理的标签（进入 / 离开时补一个空格）
+  private static final Set<String> BLOCK_TAGS = Set.of(
+      "html", "head", "body", "frameset", "script", "noscript", "style", "meta", "link", "title",
+      "frame", "noframes", "section", "nav", "aside", "hgroup", "header", "footer", "p",
+      "h1", "h2", "h3", "h4", "h5", "h6", "ul", "ol", "pre", "div", "blockquote", "hr",
+      "address", "figure", "figcaption", "form", "fieldset", "ins", "del", "dl", "dt", "dd",
+      "li", "table", "caption", "thead", "tfoot", "tbody", "colgroup", "col", "tr", "th", "td",
+      "video", "audio", "canvas", "details", "menu", "plaintext", "template", "article", "main",
+      "svg", "math", "center", "dir", "applet", "marquee", "listing", "br");
+
+  private HtmlSnippetExtractor() {
+  }
+
+  public static Snippet extract(String html, int maxChars) {
+    return new Scanner(html, maxChars).run();
+  }
+
+  public static class Snippet {
+    private final String imageUrl;
+    private final String text;
+    private final boolean truncated;
+
+    Snippet(String imageUrl, String text, boolean truncated) {
+      this.imageUrl = imageUrl;
+      this.text = text;
+      this.truncated = truncated;
+    }
+
+    // 第一张图片的 src；没有图片或 src 为空时为 null
+    public String getImageUrl() {
+      return imageUrl;
+    }
+
+    // 前 maxChars 个字符的纯文本
+    public String getText() {
+      return text;
+    }
+
+    // 纯文本是否超过 maxChars
+    public boolean isTruncated() {
+      return truncated;
+    }
+  }
+
+  private static class Scanner {
+    private final String html;
+    private final int len;
+    private final int maxChars;
+    private final StringBuilder text;
+    private int pos;
+    private boolean pendingSpace;
+    private boolean truncated;
+    private boolean imageSeen;
+    private String imageUrl;
+
+    Scanner(String html, int maxChars) {
+      this.html = html == null ? "" : html;
+      this.len = this.html.length();
+      this.maxChars = maxChars;
+      this.text = new StringBuilder(Math.min(maxChars, this.len));
+    }
+
+    Snippet run() {
+      while (pos < len && !(truncated && imageSeen)) {
+        char c = html.charAt(pos);
+        if (c == '<' && readMarkup()) {
+          continue;
+        }
+        if (c == '&') {
+          readEntity();
+        } else {
+          appendChar(c);
+          pos++;
+        }
+      }
+      return new Snippet(imageUrl, text.toString(), truncated);
+    }
+
+    // 处理 < 开头的标签 / 注释；不是合法标签时返回 false，按普通文本处理
+    private boolean readMarkup() {
+      if (pos + 1 >= len) {
+        return false;
+      }
+      char next = html.charAt(pos + 1);
+      if (next == '!') {
+        if (html.startsWith("<!--", pos)) {
+          int end = html.indexOf("-->", pos + 4);
+          pos = end < 0 ? len : end + 3;
+        } else {
+          int end = html.indexOf('>', pos + 2);
+          pos = end < 0 ? len : end + 1;
+        }
+        return true;
+      }
+      if (next == '?') {
+        int end = html.indexOf('>', pos + 2);
+        pos = end < 0 ? len : end + 1;
+        return true;
+      }
+      boolean closing = next == '/';
+      int nameStart = closing ? pos + 2 : pos + 1;
+      if (nameStart >= len || !isAsciiLetter(html.charAt(nameStart))) {
+        return false;
+      }
+      int nameEnd = nameStart;
+      while (nameEnd < len && isTagNameChar(html.charAt(nameEnd))) {
+        nameEnd++;
+      }
+      String name = html.substring(nameStart, nameEnd).toLowerCase();
+      int tagEnd = closing ? skipToTagEnd(nameEnd) : readAttributes(name, nameEnd);
+      pos = tagEnd;
+      if (BLOCK_TAGS.contains(name)) {
+        pendingSpace = true;
+      }
+      if (!closing && ("script".equals(name) || "style".equals(name))) {
+        skipRawText(name);
+      }
+      return true;
+    }
+
+    // 跳过 script / style 的内容直到对应的结束标签
+    private void skipRawText(String name) {
+      String close = "</" + name;
+      int i = pos;
+      while (true) {
+        int idx = indexOfIgnoreCase(close, i);
+        if (idx < 0) {
+          pos = len;
+          return;
+        }
+        int after = idx + close.length();
+        if (after >= len || !isTagNameChar(html.charAt(after))) {
+          pos = skipToTagEnd(after);
+          return;
+        }
+        i = after;
+      }
+    }
+
+    // 解析属性直到 '>'，顺带取出第一张图片的 src；返回标签结束后的位置
+    private int readAttributes(String tagName, int i) {
+      boolean isImg = "img".equals(tagName) && !imageSeen;
+      String src = null;
+      while (i < len) {
+        char c = html.charAt(i);
+        if (c == '>') {
+          i++;
+          break;
+        }
+        if (c == '<') {
+          // 与 Jsoup 一致：属性区出现 '<' 时当前标签在此结束，'<' 留给下一个标签
+          break;
+        }
+        if (isWhitespace(c) || c == '/') {
+          i++;
+          continue;
+        }
+        int attrStart = i;
+        while (i < len && !isWhitespace(html.charAt(i)) && html.charAt(i) != '=' && html.charAt(i) != '>'
+            && html.charAt(i) != '/' && html.charAt(i) != '<') {
+          i++;
+        }
+        int attrEnd = i;
+        while (i < len && isWhitespace(html.charAt(i))) {
+          i++;
+        }
+        if (i >= len || html.charAt(i) != '=') {
+          continue;
+        }
+        i++;
+        while (i < len && isWhitespace(html.charAt(i))) {
+          i++;
+        }
+        int valueStart;
+        int valueEnd;
+        if (i < len && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+          char quote = html.charAt(i);
+          valueStart = i + 1;
+          int close = html.indexOf(quote, valueStart);
+          valueEnd = close < 0 ? len : close;
+          i = close < 0 ? len : close + 1;
+        } else {
+          valueStart = i;
+          while (i < len && !isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+            i++;
+          }
+          valueEnd = i;
+        }
+        if (isImg && src == null && attrEnd - attrStart == 3 && html.regionMatches(true, attrStart, "src", 0, 3)) {
+          src = decodeAttribute(valueStart, valueEnd);
+        }
+      }
+      if (isImg) {
+        imageSeen = true;
+        imageUrl = src == null || src.isEmpty() ? null : src;
+      }
+      return i;
+    }
+
+    private int skipToTagEnd(int i) {
+      int end = html.indexOf('>', i);
+      return end < 0 ? len : end + 1;
+    }
+
+    // &name; / &#123; / &#x1F; 解码；无法识别时按原样文本处理
+    private void readEntity() {
+      int semi = -1;
+      int limit = Math.min(len, pos + 34);
+      for (int i = pos + 1; i < limit; i++) {
+        char c = html.charAt(i);
+        if (c == ';') {
+          semi = i;
+          break;
+        }
+        if (!Character.isLetterOrDigit(c) && c != '#') {
+          break;
+        }
+      }
+      String decoded = semi < 0 ? null : decodeEntity(pos + 1, semi);
+      if (decoded == null) {
+        appendChar('&');
+        pos++;
+        return;
+      }
+      for (int i = 0; i < decoded.length(); i++) {
+        appendChar(decoded.charAt(i));
+      }
+      pos = semi + 1;
+    }
+
+    private String decodeEntity(int start, int end) {
+      if (end <= start) {
+        return null;
+      }
+      if (html.charAt(start) == '#') {
+        try {
+          boolean hex = end > start + 1 && (html.charAt(start + 1) == 'x' || html.charAt(start + 1) == 'X');
+          int codePoint = hex
+              ? Integer.parseInt(html.substring(start + 2, end), 16)
+              : Integer.parseInt(html.substring(start + 1, end));
+          return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      }
+      String name = html.substring(start, end);
+      switch (name) {
+        case "amp":
+          return "&";
+        case "lt":
+          return "<";
+        case "gt":
+          return ">";
+        case "quot":
+          return "\"";
+        case "apos":
+          return "'";
+        case "nbsp":
+          return "\u00a0";
+        default:
+          String value = Entities.getByName(name);
+          return value == null || value.isEmpty() ? null : value;
+      }
+    }
+
+    private String decodeAttribute(int start, int end) {
+      int amp = html.indexOf('&', start);
+      if (amp < 0 || amp >= end) {
+        return html.substring(start, end).trim();
+      }
+      StringBuilder sb = new StringBuilder(end - start);
+      int i = start;
+      while (i < end) {
+        char c = html.charAt(i);
+        if (c == '&') {
+          int semi = html.indexOf(';', i);
+          String decoded = semi > i && semi < end ? decodeEntity(i + 1, semi) : null;
+          if (decoded != null) {
+            sb.append(decoded);
+            i = semi + 1;
+            continue;
+          }
+        }
+        sb.append(c);
+        i++;
+      }
+      return sb.toString().trim();
+    }
+
+    // 空白折叠：连续空白只在下一个可见字符前输出一个空格（开头不输出）
+    private void appendChar(char c) {
+      if (truncated) {
+        return;
+      }
+      if (isWhitespace(c)) {
+        pendingSpace = true;
+        return;
+      }
+      int needed = pendingSpace && text.length() > 0 ? 2 : 1;
+      if (text.length() + needed > maxChars) {
+        // 若 maxChars 恰好落在空格处，与 substring 保持一致地保留这个空格
+        if (needed == 2 && text.length() < maxChars) {
+          text.append(' ');
+        }
+        truncated = true;
+        return;
+      }
+      if (needed == 2) {
+        text.append(' ');
+      }
+      pendingSpace = false;
+      text.append(c);
+    }
+
+    private int indexOfIgnoreCase(String needle, int from) {
+      for (int i = from; i <= len - needle.length(); i++) {
+        if (html.charAt(i) == '<' && html.regionMatches(true, i, needle, 0, needle.length())) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private static boolean isWhitespace(char c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00a0';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isTagNameChar(char c) {
+      return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '-' || c == ':' || c == '_';
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.services.ingest.HostPermits.Permit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// 抓取专用的执行器（替代 parallelStream / 公共 ForkJoinPool）
+// 1) 独立的有界线程池，线程数按 I/O 并发配置，与 CPU 核数无关
+// 2) 许可分两层：先拿 host 许可（每个 host:port 最多 N 个在途），再拿全局许可（总在途上限）
+//    先 host 后全局：被某个 host 卡住的任务不会占着全局名额
+// 3) 排队是公平的：同一 host 超出上限的任务在该 host 的 FIFO 里等待，不占线程也不进全局队列，
+//    全局队列里每个 host 最多 N 个，等价于按 host 轮转
+// 4) RSS 的异步请求与 WEB/TWITTER 的阻塞任务共用同一套许可
+// 5) 虚拟线程模式（需 Java 21 运行时）：每个抓取任务一个虚拟线程，不再按线程池大小限流，
+//    并发只由上面的许可（礼貌限制）决定；运行时不支持时回退到平台线程池
+// 6) 文章页 / 补图等子任务走 submitPage：单独一套按 host 的许可和执行器，
+//    父任务（占着 feed 级许可）等待子任务时不会互相卡死
+// 7) 不在调用方线程上执行任务：许可放行在 handoff 线程上进行，线程池队列满时拒绝并让该任务失败，
+//    HttpClient 回调与读取期限的定时线程上不会跑阻塞的抓取
+@Component
+public class IngestExecutor {
+
+  // 阻塞任务的工作线程数
+  @Value("${app.ingest.executor.threads:16}")
+  private int threads;
+  // 全局在途上限（阻塞任务 + 异步请求）
+  @Value("${app.ingest.executor.max-in-flight:32}")
+  private int maxInFlight;
+  // 线程池队列容量；在途任务已受全局 / host 许可限制，满了直接拒绝（任务失败），不在提交线程上执行
+  @Value("${app.ingest.executor.queue-capacity:256}")
+  private int queueCapacity;
+  @Value("${app.ingest.http.max-connections-per-host:4}")
+  private int maxConnectionsPerHost;
+  // 子任务（文章页、补图）：平台线程模式下的线程数，以及每个 host 同时在途上限
+  @Value("${app.ingest.executor.page-threads:8}")
+  private int pageThreads;
+  @Value("${app.ingest.executor.page-connections-per-host:4}")
+  private int pageConnectionsPerHost;
+  @Value("${app.ingest.executor.virtual-threads:false}")
+  private boolean virtualThreadsEnabled;
+
+  private static final String GLOBAL = "*";
+
+  private ExecutorService pool;
+  private ExecutorService pagePool;
+  // 虚拟线程模式下同时作为 HttpClient 的回调执行器；平台线程模式为 null（用 HttpClient 默认）
+  private ExecutorService virtualExecutor;
+  // 许可放行用：只完成 future 并提交下一阶段，不做阻塞工作
+  private ExecutorService handoffExecutor;
+  private HostPermits hostPermits;
+  private HostPermits globalPermits;
+  private HostPermits pagePermits;
+
+  @PostConstruct
+  void init() {
+    if (virtualThreadsEnabled) {
+      virtualExecutor = newVirtualThreadPerTaskExecutor();
+    }
+    if (virtualExecutor != null) {
+      System.out.println("[ingest] executor mode: virtual threads");
+      pool = virtualExecutor;
+      pagePool = virtualExecutor;
+    } else {
+      pool = newPlatformPool("ingest-", threads, queueCapacity);
+      pagePool = newPlatformPool("ingest-page-", pageThreads, queueCapacity);
+    }
+    handoffExecutor = virtualExecutor != null ? virtualExecutor : Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "ingest-permit-handoff");
+      t.setDaemon(true);
+      return t;
+    });
+    hostPermits = new HostPermits(maxConnectionsPerHost, handoffExecutor);
+    globalPermits = new HostPermits(maxInFlight, handoffExecutor);
+    pagePermits = new HostPermits(pageConnectionsPerHost, handoffExecutor);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+    pagePool.shutdownNow();
+    handoffExecutor.shutdownNow();
+  }
+
+  // 工程仍以 Java 17 编译，通过反射调用 Java 21 的 Executors.newVirtualThreadPerTaskExecutor
+  private ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      System.out.println("[ingest] virtual threads need Java 21+, falling back to platform threads (running "
+          + Runtime.version() + ")");
+      return null;
+    }
+  }
+
+  private ThreadPoolExecutor newPlatformPool(String prefix, int size, int capacity) {
+    AtomicInteger counter = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, capacity)),
+        r -> {
+          Thread t = new Thread(r, prefix + counter.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualExecutor != null;
+  }
+
+  // 异步回调执行器：虚拟线程模式下返回虚拟线程执行器，否则为 null
+  public Executor asyncExecutor() {
+    return virtualExecutor;
+  }
+
+  // 异步任务用：拿到 host + 全局许可后完成，用完必须 release
+  public CompletableFuture<Lease> acquire(String host) {
+    return hostPermits.acquire(host).thenCompose(hostPermit ->
+        globalPermits.acquire(GLOBAL).thenApply(globalPermit -> new Lease(hostPermit, globalPermit)));
+  }
+
+  // 阻塞任务用：拿到许可后在线程池中执行，结束（含异常）时归还许可
+  public <T> CompletableFuture<T> submit(String host, Callable<T> task) {
+    return acquire(host).thenCompose(lease -> run(pool, task, lease::release));
+  }
+
+  // 子任务用（文章页、补图）：只占子任务自己的 host 许可
+  public <T> CompletableFuture<T> submitPage(String host, Callable<T> task) {
+    return pagePermits.acquire(host == null ? "" : host)
+        .thenCompose(permit -> run(pagePool, task, permit::release));
+  }
+
+  private <T> CompletableFuture<T> run(ExecutorService executor, Callable<T> task, Runnable release) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        // 先归还许可再完成 future：后续阶段（如提交入库队列）在回调里阻塞时不占着抓取许可
+        T value;
+        try {
+          value = task.call();
+        } catch (Throwable e) {
+          release.run();
+          result.completeExceptionally(e);
+          return;
+        }
+        release.run();
+        result.complete(value);
+      });
+    } catch (RuntimeException e) {
+      // 队列已满或已关闭
+      release.run();
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  // host:port 作为限流键；解析失败时退回原字符串
+  public static String hostKey(String url) {
+    if (url == null) {
+      return "";
+    }
+    try {
+      URI uri = URI.create(url.trim());
+      if (uri.getHost() != null) {
+        return hostKey(uri);
+      }
+    } catch (Exception e) {
+      // fall through
+    }
+    return url.trim();
+  }
+
+  public static String hostKey(URI uri) {
+    return uri.getHost() + ":" + uri.getPort();
+  }
+
+  public static class Lease {
+    private final Permit hostPermit;
+    private final Permit globalPermit;
+
+    private Lease(Permit hostPermit, Permit globalPermit) {
+      this.hostPermit = hostPermit;
+      this.globalPermit = globalPermit;
+    }
+
+    // 幂等：先还全局许可，再还 host 许可
+    public void release() {
+      globalPermit.release();
+      hostPermit.release();
+    }
+  }
+}
@@ -0,0 +1,385 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.models.ThumbnailTask;
+import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
+import com.example.springboot3newsreader.services.NewsArticleContentService;
+import com.example.springboot3newsreader.services.NewsArticleDedupeService;
+import com.example.springboot3newsreader.services.dedupe.StoryClusterIndex;
+import com.example.springboot3newsreader.services.dedupe.UrlNormalizer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// 抓取之后的分阶段流水线：dedupe -> persist -> enrich，阶段之间用有界队列连接
+// 1) fetch / parse 在 IngestExecutor 与 HttpClient 回调上完成，解析结果通过 submit 进入流水线；
+//    submit 不阻塞调用线程（常是 HttpClient 回调）：队列满时交给 ingest-submit 线程等待入队（反压），
+//    等待超过 submit-timeout-ms 则该 feed 本次失败，状态不保存，下次抓取重来
+// 2) dedupe：一次取出多个 feed 的结果合并去重（一次 URL / 标题查询服务多个 feed），
+//    查库前先把候选的 url_hash 记入 pendingUrlHashes（占用），直到入库提交后才释放：
+//    两个 feed（或多个 dedupe worker）同时带来同一篇文章时只有占用成功的一方会入库，
+//    其余一方查库时一定能看到已提交的结果；不依赖整个刷新串行执行
+//    因占用而跳过条目的 feed 要等占用方入库后才保存水位 / 哈希：占用方失败时不保存，下次抓取会重新带来这些条目
+//    （多实例部署时由 url_hash 唯一索引兜底，冲突的文章在入库时跳过）
+//    去重后的文章再经 StoryClusterIndex 分配跨来源的 clusterId
+// 3) persist：跨 feed 攒批（达到 persist-batch-size 或等待 persist-linger-ms），一次 saveAll；
+//    入库成功后才执行各 feed 的 onCommitted（保存水位 / 哈希等状态）并完成结果
+// 4) enrich：为没有首图的新文章创建补图任务，不阻塞入库
+// 每个阶段有独立的 worker 数，慢的 DB 写入不会占用抓取线程，慢的站点也不会拖住入库批次
+@Component
+public class IngestStages {
+
+  @Autowired
+  private NewsArticleDedupeService newsArticleDedupeService;
+  @Autowired
+  private NewsArticleContentService newsArticleContentService;
+  @Autowired
+  private ThumbnailTaskRepository thumbnailTaskRepository;
+  @Autowired
+  private StoryClusterIndex storyClusterIndex;
+
+  // 各阶段队列容量（以 feed 批次计）
+  @Value("${app.ingest.pipeline.queue-capacity:64}")
+  private int queueCapacity;
+  @Value("${app.ingest.pipeline.dedupe-workers:1}")
+  private int dedupeWorkers;
+  @Value("${app.ingest.pipeline.persist-workers:1}")
+  private int persistWorkers;
+  @Value("${app.ingest.pipeline.enrich-workers:1}")
+  private int enrichWorkers;
+  // 单次 saveAll 的文章数上限，以及攒批的最长等待时间
+  @Value("${app.ingest.pipeline.persist-batch-size:200}")
+  private int persistBatchSize;
+  @Value("${app.ingest.pipeline.persist-linger-ms:200}")
+  private long persistLingerMs;
+  // 队列满时等待入队的最长时间
+  @Value("${app.ingest.pipeline.submit-timeout-ms:30000}")
+  private long submitTimeoutMs;
+
+  private BlockingQueue<FeedBatch> dedupeQueue;
+  private BlockingQueue<FeedBatch> persistQueue;
+  private BlockingQueue<List<NewsArticle>> enrichQueue;
+  // 已占用的 url_hash -> 占用它的 feed 批次
+  private final ConcurrentHashMap<String, FeedBatch> pendingUrlHashes = new ConcurrentHashMap<>();
+  private final List<Thread> workers = new ArrayList<>();
+  private ExecutorService submitExecutor;
+  private volatile boolean running = true;
+
+  @PostConstruct
+  void start() {
+    int capacity = Math.max(1, queueCapacity);
+    dedupeQueue = new ArrayBlockingQueue<>(capacity);
+    persistQueue = new ArrayBlockingQueue<>(capacity);
+    enrichQueue = new ArrayBlockingQueue<>(capacity);
+    submitExecutor = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "ingest-submit");
+      t.setDaemon(true);
+      return t;
+    });
+    startWorkers("ingest-dedupe-", dedupeWorkers, this::dedupeLoop);
+    startWorkers("ingest-persist-", persistWorkers, this::persistLoop);
+    startWorkers("ingest-enrich-", enrichWorkers, this::enrichLoop);
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    submitExecutor.shutdownNow();
+    for (Thread worker : workers) {
+      worker.interrupt();
+    }
+  }
+
+  private void startWorkers(String prefix, int count, Runnable loop) {
+    for (int i = 1; i <= Math.max(1, count); i++) {
+      Thread t = new Thread(loop, prefix + i);
+      t.setDaemon(true);
+      t.start();
+      workers.add(t);
+    }
+  }
+
+  // 提交一个 feed 的解析结果；返回的 future 在入库完成后给出实际保存的文章
+  // createThumbnailTasks：是否为没有首图的文章创建补图任务；onCommitted 可为空
+  public CompletableFuture<List<NewsArticle>> submit(String sourceLabel, List<NewsArticle> parsed,
+      boolean createThumbnailTasks, Runnable onCommitted) {
+    FeedBatch batch = new FeedBatch(sourceLabel, parsed == null ? new ArrayList<>() : parsed,
+        createThumbnailTasks, onCommitted);
+    if (batch.parsed.isEmpty()) {
+      // 没有候选文章时不进队列，直接提交 feed 状态（例如水位前移）
+      batch.commit(new ArrayList<>());
+      return batch.result;
+    }
+    if (dedupeQueue.offer(batch)) {
+      return batch.result;
+    }
+    // 队列已满：不在调用线程上阻塞，由 ingest-submit 线程等待入队
+    try {
+      submitExecutor.execute(() -> enqueue(batch));
+    } catch (RejectedExecutionException e) {
+      batch.result.completeExceptionally(e);
+    }
+    return batch.result;
+  }
+
+  private void enqueue(FeedBatch batch) {
+    try {
+      if (!dedupeQueue.offer(batch, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+        System.err.println("[pipeline] dedupe queue still full after " + submitTimeoutMs + "ms, dropping "
+            + batch.sourceLabel + " (feed state not saved)");
+        batch.result.completeExceptionally(new RejectedExecutionException("ingest pipeline queue full"));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      batch.result.completeExceptionally(e);
+    }
+  }
+
+  private void dedupeLoop() {
+    while (running) {
+      List<FeedBatch> batches = new ArrayList<>();
+      try {
+        batches.add(dedupeQueue.take());
+        dedupeQueue.drainTo(batches);
+        dedupe(batches);
+        for (FeedBatch batch : batches) {
+          persistQueue.put(batch);
+        }
+      } catch (InterruptedException e) {
+        failAll(batches, e);
+        return;
+      } catch (Exception e) {
+        System.err.println("[pipeline] dedupe failed: " + e.getMessage());
+        failAll(batches, e);
+      }
+    }
+  }
+
+  private void dedupe(List<FeedBatch> batches) {
+    // 先占用 url_hash 再查库：占用在入库提交后才释放，查库时能看到其他批次已提交的同一 URL；
+    // 已被其他批次（或本批更早的条目）占用的 URL 由占用方负责入库，这里直接跳过，并记下对占用方的依赖
+    List<NewsArticle> candidates = new ArrayList<>();
+    int parsedCount = 0;
+    for (FeedBatch batch : batches) {
+      parsedCount += batch.parsed.size();
+      for (NewsArticle a : batch.parsed) {
+        String urlHash = UrlNormalizer.hash(a.getSourceURL());
+        a.setUrlHash(urlHash);
+        if (urlHash != null) {
+          FeedBatch holder = pendingUrlHashes.putIfAbsent(urlHash, batch);
+          if (holder != null) {
+            if (holder != batch) {
+              batch.dependsOn.add(holder);
+            }
+            continue;
+          }
+          batch.pendingUrlHashes.add(urlHash);
+        }
+        candidates.add(a);
+      }
+    }
+    Set<NewsArticle> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+    kept.addAll(newsArticleDedupeService.filterNewArticles(candidates));
+
+    int keptCount = 0;
+    for (FeedBatch batch : batches) {
+      for (NewsArticle a : batch.parsed) {
+        if (kept.contains(a)) {
+          batch.kept.add(a);
+        }
+      }
+      keptCount += batch.kept.size();
+    }
+    List<NewsArticle> allKept = new ArrayList<>(keptCount);
+    for (FeedBatch batch : batches) {
+      allKept.addAll(batch.kept);
+    }
+    storyClusterIndex.assign(allKept);
+    System.out.println("[pipeline] dedupe: feeds=" + batches.size() + " parsed=" + parsedCount
+        + " candidates=" + candidates.size() + " kept=" + keptCount);
+  }
+
+  private void persistLoop() {
+    while (running) {
+      List<FeedBatch> batches = new ArrayList<>();
+      try {
+        FeedBatch first = persistQueue.take();
+        batches.add(first);
+        int articles = first.kept.size();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(persistLingerMs);
+        while (articles < persistBatchSize) {
+          long waitNanos = deadline - System.nanoTime();
+          FeedBatch next = waitNanos > 0 ? persistQueue.poll(waitNanos, TimeUnit.NANOSECONDS) : persistQueue.poll();
+          if (next == null) {
+            break;
+          }
+          batches.add(next);
+          articles += next.kept.size();
+        }
+        persist(batches);
+      } catch (InterruptedException e) {
+        failAll(batches, e);
+        return;
+      } catch (Exception e) {
+        System.err.println("[pipeline] persist failed: " + e.getMessage());
+        failAll(batches, e);
+      }
+    }
+  }
+
+  private void persist(List<FeedBatch> batches) throws InterruptedException {
+    List<NewsArticle> all = new ArrayList<>();
+    for (FeedBatch batch : batches) {
+      all.addAll(batch.kept);
+    }
+    Set<NewsArticle> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+    try {
+      if (!all.isEmpty()) {
+        // 单事务：id 从 pooled 序列预取，提交时按 hibernate.jdbc.batch_size 分批发送 insert（文章与原文分表）
+        // 因唯一索引冲突被跳过的文章不在返回值中
+        stored.addAll(newsArticleContentService.saveAll(all));
+      }
+    } finally {
+      release(batches);
+    }
+    for (FeedBatch batch : batches) {
+      batch.persisted.complete(null);
+    }
+    System.out.println("[pipeline] persisted " + stored.size() + " articles from " + batches.size() + " feeds"
+        + (stored.size() < all.size() ? " (" + (all.size() - stored.size()) + " duplicates skipped)" : ""));
+
+    List<NewsArticle> needThumbnails = new ArrayList<>();
+    for (FeedBatch batch : batches) {
+      // saveAll 对新实体原样返回传入的对象，id 已回填
+      batch.kept.removeIf(a -> !stored.contains(a));
+      batch.commit(batch.kept);
+      if (batch.createThumbnailTasks) {
+        needThumbnails.addAll(batch.kept);
+      }
+    }
+    if (!needThumbnails.isEmpty()) {
+      enrichQueue.put(needThumbnails);
+    }
+  }
+
+  private void enrichLoop() {
+    while (running) {
+      try {
+        List<List<NewsArticle>> lists = new ArrayList<>();
+        lists.add(enrichQueue.take());
+        enrichQueue.drainTo(lists);
+        List<ThumbnailTask> tasks = new ArrayList<>();
+        for (List<NewsArticle> saved : lists) {
+          for (NewsArticle a : saved) {
+            if (a.getId() == null || (a.getTumbnailURL() != null && !a.getTumbnailURL().isBlank())) {
+              continue;
+            }
+            ThumbnailTask task = new ThumbnailTask();
+            task.setArticleId(a.getId());
+            task.setArticleUrl(a.getSourceURL());
+            task.setStatus("WAITING");
+            task.setAttempts(0);
+            task.setCreatedAt(LocalDateTime.now());
+            task.setUpdatedAt(LocalDateTime.now());
+            tasks.add(task);
+          }
+        }
+        if (!tasks.isEmpty()) {
+          System.out.println("[pipeline] creating thumbnail tasks: " + tasks.size());
+          thumbnailTaskRepository.saveAll(tasks);
+        }
+      } catch (InterruptedException e) {
+        return;
+      } catch (Exception e) {
+        System.err.println("[pipeline] enrich failed: " + e.getMessage());
+      }
+    }
+  }
+
+  private void release(List<FeedBatch> batches) {
+    for (FeedBatch batch : batches) {
+      for (String urlHash : batch.pendingUrlHashes) {
+        pendingUrlHashes.remove(urlHash, batch);
+      }
+    }
+  }
+
+  private void failAll(List<FeedBatch> batches, Exception e) {
+    release(batches);
+    for (FeedBatch batch : batches) {
+      batch.persisted.completeExceptionally(e);
+      batch.result.completeExceptionally(e);
+    }
+  }
+
+  // 单个 feed 在流水线中的状态
+  private static class FeedBatch {
+    private final String sourceLabel;
+    private final List<NewsArticle> parsed;
+    private final boolean createThumbnailTasks;
+    private final Runnable onCommitted;
+    private final List<NewsArticle> kept = new ArrayList<>();
+    private final List<String> pendingUrlHashes = new ArrayList<>();
+    // 本批占用的 url_hash 入库完成（成功或失败），依赖本批的其他 feed 据此决定是否保存状态
+    private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+    // 跳过的条目由这些批次占用；只依赖 persisted，不依赖对方的 commit，不会互相等待
+    private final Set<FeedBatch> dependsOn = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final CompletableFuture<List<NewsArticle>> result = new CompletableFuture<>();
+
+    FeedBatch(String sourceLabel, List<NewsArticle> parsed, boolean createThumbnailTasks, Runnable onCommitted) {
+      this.sourceLabel = sourceLabel;
+      this.parsed = parsed;
+      this.createThumbnailTasks = createThumbnailTasks;
+      this.onCommitted = onCommitted;
+    }
+
+    // 入库成功后：保存 feed 状态（失败只记录，不影响已入库的文章），再完成结果
+    // 有依赖时等占用方入库完成；任一占用方失败则不保存状态，下次抓取重新处理整个 feed
+    void commit(List<NewsArticle> saved) {
+      if (dependsOn.isEmpty()) {
+        saveFeedState();
+        result.complete(saved);
+        return;
+      }
+      CompletableFuture<?>[] holders = dependsOn.stream().map(b -> b.persisted).toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(holders).whenComplete((ignored, error) -> {
+        if (error == null) {
+          saveFeedState();
+        } else {
+          System.err.println("[pipeline] not saving feed state for " + sourceLabel
+              + ": entries claimed by a failed batch will be fetched again");
+        }
+        result.complete(saved);
+      });
+    }
+
+    private void saveFeedState() {
+      if (onCommitted != null) {
+        try {
+          onCommitted.run();
+        } catch (Exception e) {
+          System.err.println("[pipeline] failed to commit feed state for " + sourceLabel + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+}
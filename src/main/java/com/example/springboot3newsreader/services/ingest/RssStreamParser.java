@@ -0,0 +1,283 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.rometools.rome.io.XmlReader;
+import com.rometools.rome.io.impl.DateParser;
+import com.rometools.rome.io.impl.XmlFixerReader;
+
+// 基于 StAX 的流式 RSS / RDF / Atom 解析器
+// 直接从 InputStream 逐条读取 item/entry，每读完一条立刻回调，整份 XML 不会驻留内存
+// 1) 禁用 DTD 与外部实体（DOCTYPE 只作为事件跳过，不需要再用正则剥离）
+// 2) 编码探测沿用 Rome 的 XmlReader，HTML 实体（如 &nbsp;）沿用 Rome 的 XmlFixerReader 修正
+// 3) 字段取值与 Rome SyndEntry 保持一致：description/summary、enclosure、published/updated
+public class RssStreamParser {
+
+  private static final XMLInputFactory FACTORY = createFactory();
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
+  }
+
+  // 解析整份 feed，每条 entry 回调一次；返回 channel 级信息（如 feed 图片）
+  public FeedInfo parse(InputStream input, Consumer<FeedEntry> consumer) throws Exception {
+    FeedInfo info = new FeedInfo();
+    XMLStreamReader reader = FACTORY.createXMLStreamReader(new XmlFixerReader(new XmlReader(input)));
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+          continue;
+        }
+        String name = reader.getLocalName();
+        if ("item".equals(name) || "entry".equals(name)) {
+          consumer.accept(readEntry(reader, name));
+        } else if ("image".equals(name)) {
+          readChannelImage(reader, info);
+        } else if ("logo".equals(name) && info.imageUrl == null) {
+          info.imageUrl = trimToNull(readText(reader));
+        } else if ("ttl".equals(name)) {
+          info.ttlMinutes = parseInt(readText(reader));
+        } else if ("updatePeriod".equals(name)) {
+          info.updatePeriod = trimToNull(readText(reader));
+        } else if ("updateFrequency".equals(name)) {
+          info.updateFrequency = parseInt(readText(reader));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return info;
+  }
+
+  private FeedEntry readEntry(XMLStreamReader reader, String entryTag) throws XMLStreamException {
+    FeedEntry entry = new FeedEntry();
+    Date updated = null;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.END_ELEMENT && entryTag.equals(reader.getLocalName())) {
+        break;
+      }
+      if (event != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      String name = reader.getLocalName();
+      switch (name) {
+        case "title":
+          entry.title = trimToNull(readText(reader));
+          break;
+        case "link":
+          readLink(reader, entry);
+          break;
+        case "guid":
+        case "id":
+          entry.guid = trimToNull(readText(reader));
+          break;
+        case "pubDate":
+        case "published":
+        case "date":
+          if (entry.publishedDate == null) {
+            entry.publishedDate = parseDate(readText(reader));
+          } else {
+            skipElement(reader);
+          }
+          break;
+        case "updated":
+          updated = parseDate(readText(reader));
+          break;
+        case "description":
+        case "summary":
+          if (entry.descriptionHtml == null) {
+            entry.descriptionHtml = readText(reader);
+          } else {
+            skipElement(reader);
+          }
+          break;
+        case "enclosure":
+          acceptEnclosure(entry,
+              reader.getAttributeValue(null, "url"),
+              reader.getAttributeValue(null, "type"));
+          skipElement(reader);
+          break;
+        default:
+          skipElement(reader);
+          break;
+      }
+    }
+    if (entry.publishedDate == null) {
+      entry.publishedDate = updated;
+    }
+    return entry;
+  }
+
+  // RSS: <link>url</link>；Atom: <link rel="alternate|enclosure" href="..."/>
+  private void readLink(XMLStreamReader reader, FeedEntry entry) throws XMLStreamException {
+    String href = reader.getAttributeValue(null, "href");
+    if (href == null) {
+      String text = trimToNull(readText(reader));
+      if (entry.link == null) {
+        entry.link = text;
+      }
+      return;
+    }
+    String rel = reader.getAttributeValue(null, "rel");
+    if (rel == null || "alternate".equals(rel)) {
+      if (entry.link == null) {
+        entry.link = href.trim();
+      }
+    } else if ("enclosure".equals(rel)) {
+      acceptEnclosure(entry, href, reader.getAttributeValue(null, "type"));
+    }
+    skipElement(reader);
+  }
+
+  private void acceptEnclosure(FeedEntry entry, String url, String type) {
+    if (entry.imageEnclosureUrl != null || url == null) {
+      return;
+    }
+    if (type != null && type.startsWith("image/")) {
+      entry.imageEnclosureUrl = url.trim();
+    }
+  }
+
+  private void readChannelImage(XMLStreamReader reader, FeedInfo info) throws XMLStreamException {
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.END_ELEMENT && "image".equals(reader.getLocalName())) {
+        return;
+      }
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if ("url".equals(reader.getLocalName()) && info.imageUrl == null) {
+          info.imageUrl = trimToNull(readText(reader));
+        } else {
+          skipElement(reader);
+        }
+      }
+    }
+  }
+
+  // 读取当前元素内的全部文本（含嵌套元素的文本），读完后停在该元素的 END_ELEMENT
+  private String readText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder sb = new StringBuilder();
+    int depth = 1;
+    while (depth > 0 && reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      } else if (event == XMLStreamConstants.CHARACTERS
+          || event == XMLStreamConstants.CDATA
+          || event == XMLStreamConstants.SPACE) {
+        sb.append(reader.getText());
+      }
+    }
+    return sb.toString();
+  }
+
+  private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0 && reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  private Date parseDate(String value) {
+    String trimmed = trimToNull(value);
+    return trimmed == null ? null : DateParser.parseDate(trimmed, Locale.US);
+  }
+
+  private Integer parseInt(String value) {
+    String trimmed = trimToNull(value);
+    if (trimmed == null) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(trimmed);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private String trimToNull(String value) {
+    if (value == null) {
+      return null;
+    }
+    String trimmed = value.trim();
+    return trimmed.isEmpty() ? null : trimmed;
+  }
+
+  // channel 级信息：图片，以及发布方建议的更新周期（RSS <ttl>、sy:updatePeriod / sy:updateFrequency）
+  public static class FeedInfo {
+    private String imageUrl;
+    private Integer ttlMinutes;
+    private String updatePeriod;
+    private Integer updateFrequency;
+
+    public String getImageUrl() {
+      return imageUrl;
+    }
+
+    public Integer getTtlMinutes() {
+      return ttlMinutes;
+    }
+
+    public String getUpdatePeriod() {
+      return updatePeriod;
+    }
+
+    public Integer getUpdateFrequency() {
+      return updateFrequency;
+    }
+  }
+
+  public static class FeedEntry {
+    private String title;
+    private String link;
+    private String guid;
+    private Date publishedDate;
+    private String descriptionHtml;
+    private String imageEnclosureUrl;
+
+    public String getTitle() {
+      return title;
+    }
+
+    public String getLink() {
+      return link;
+    }
+
+    public String getGuid() {
+      return guid;
+    }
+
+    public Date getPublishedDate() {
+      return publishedDate;
+    }
+
+    public String getDescriptionHtml() {
+      return descriptionHtml;
+    }
+
+    public String getImageEnclosureUrl() {
+      return imageEnclosureUrl;
+    }
+  }
+}
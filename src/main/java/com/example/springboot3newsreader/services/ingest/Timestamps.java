@@ -0,0 +1,43 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// 宽松解析各来源给出的时间字符串（网页 meta、旧版本存库的字符串等）
+// 依次尝试：ISO 8601 instant（...Z）→ 带偏移（+08:00）→ 不带时区（默认按 UTC，可指定站点时区）；都不匹配返回 null
+public final class Timestamps {
+
+  private Timestamps() {
+  }
+
+  public static Instant parse(String value) {
+    return parse(value, ZoneOffset.UTC);
+  }
+
+  public static Instant parse(String value, ZoneId localZone) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    String val = value.trim();
+    try {
+      return Instant.parse(val);
+    } catch (Exception e) {
+      // ignore
+    }
+    try {
+      return OffsetDateTime.parse(val).toInstant();
+    } catch (Exception e) {
+      // ignore
+    }
+    try {
+      return LocalDateTime.parse(val, DateTimeFormatter.ISO_LOCAL_DATE_TIME).atZone(localZone).toInstant();
+    } catch (Exception e) {
+      // ignore
+    }
+    return null;
+  }
+}
@@ -60,9 +60,9 @@ public class AieraWebAdapter extends BaseWebAdapter {
       a.setSourceURL(url);
       a.setSourceName(sourceName);
       a.setTitle(title.trim());
-      a.setPublishedAt(publishedAt);
+      a.setPublishedAt(normalizeDate(publishedAt, null));
       a.setTumbnailURL(thumb);
-      a.setScrapedAt(Instant.now().toString());
+      a.setScrapedAt(Instant.now());
       results.add(a);
       if (results.size() >= MAX_ARTICLES) {
         break;
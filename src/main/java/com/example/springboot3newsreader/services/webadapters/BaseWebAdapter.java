@@ -2,24 +2,23 @@ package com.example.springboot3newsreader.services.webadapters;
 
 import java.net.URI;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.services.ingest.IngestExecutor;
+import com.example.springboot3newsreader.services.ingest.Timestamps;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -35,8 +34,10 @@ public abstract class BaseWebAdapter implements WebAdapter {
   protected static final int FETCH_RETRIES = 2;
   // 单个站点最多解析的文章数量（避免抓取过多）
   protected static final int MAX_ARTICLES = 20;
-  // 解析文章的并发线程数（控制站点压力）
-  protected static final int PARSE_THREADS = 4;
+
+  // 文章页抓取走共用执行器的子任务通道（每个 host 的并发见 app.ingest.executor.page-connections-per-host）
+  @Autowired
+  protected IngestExecutor ingestExecutor;
 
   private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -52,40 +53,35 @@ public abstract class BaseWebAdapter implements WebAdapter {
       System.out.println("[preview] sample links: " + links.subList(0, limit));
     }
     List<NewsArticle> articles = new ArrayList<>();
-    ExecutorService pool = Executors.newFixedThreadPool(PARSE_THREADS);
-    try {
-      List<Future<NewsArticle>> tasks = new ArrayList<>();
-      for (String link : links) {
-        tasks.add(pool.submit(new Callable<NewsArticle>() {
-          @Override
-          public NewsArticle call() {
-            try {
-              System.out.println("[preview] parse article: " + link);
-              NewsArticle article = parseArticle(link, sourceName);
-              if (article == null) {
-                System.out.println("[preview] skip article (no title): " + link);
-              }
-              return article;
-            } catch (Exception e) {
-              System.out.println("[preview] parse error: " + link);
-              e.printStackTrace();
-              return null;
+    List<Future<NewsArticle>> tasks = new ArrayList<>();
+    for (String link : links) {
+      tasks.add(submitPage(link, new Callable<NewsArticle>() {
+        @Override
+        public NewsArticle call() {
+          try {
+            System.out.println("[preview] parse article: " + link);
+            NewsArticle article = parseArticle(link, sourceName);
+            if (article == null) {
+              System.out.println("[preview] skip article (no title): " + link);
             }
+            return article;
+          } catch (Exception e) {
+            System.out.println("[preview] parse error: " + link);
+            e.printStackTrace();
+            return null;
           }
-        }));
-      }
-      for (Future<NewsArticle> task : tasks) {
-        try {
-          NewsArticle article = task.get();
-          if (article != null) {
-            articles.add(article);
-          }
-        } catch (Exception e) {
-          // ignore parse errors from a single article
         }
+      }));
+    }
+    for (Future<NewsArticle> task : tasks) {
+      try {
+        NewsArticle article = task.get();
+        if (article != null) {
+          articles.add(article);
+        }
+      } catch (Exception e) {
+        // ignore parse errors from a single article
       }
-    } finally {
-      pool.shutdown();
     }
     System.out.println("[preview] articles parsed: " + articles.size());
     return articles;
@@ -126,7 +122,7 @@ public abstract class BaseWebAdapter implements WebAdapter {
       aPreview.setSourceURL(abs);
       aPreview.setSourceName(sourceName);
       aPreview.setTitle(textOrNull(a));
-      aPreview.setScrapedAt(Instant.now().toString());
+      aPreview.setScrapedAt(Instant.now());
       previews.add(aPreview);
       if (previews.size() >= MAX_ARTICLES) {
         break;
@@ -136,11 +132,24 @@ public abstract class BaseWebAdapter implements WebAdapter {
     return previews;
   }
 
+  // 文章页子任务：按 host 限流，虚拟线程模式下每个任务一个虚拟线程
+  protected <T> Future<T> submitPage(String url, Callable<T> task) {
+    if (ingestExecutor == null) {
+      try {
+        return CompletableFuture.completedFuture(task.call());
+      } catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return ingestExecutor.submitPage(IngestExecutor.hostKey(url), task);
+  }
+
   protected Document fetchDocument(String url) throws Exception {
     Exception lastError = null;
     for (int attempt = 0; attempt <= FETCH_RETRIES; attempt++) {
       long start = System.currentTimeMillis();
       try {
+        // Jsoup 默认带 Accept-Encoding: gzip 并在读取时解压，这里不再重复处理
         Document doc = Jsoup.connect(url)
           .userAgent(USER_AGENT)
           .referrer("https://www.google.com/")
@@ -240,7 +249,7 @@ public abstract class BaseWebAdapter implements WebAdapter {
     NewsArticle a = new NewsArticle();
     a.setSourceURL(url);
     a.setSourceName(sourceName);
-    a.setScrapedAt(Instant.now().toString());
+    a.setScrapedAt(Instant.now());
 
     JsonNode jsonLd = findNewsArticleJsonLd(doc);
     String title = firstNonBlank(
@@ -266,7 +275,7 @@ public abstract class BaseWebAdapter implements WebAdapter {
     }
 
     a.setTitle(title.trim());
-    a.setPublishedAt(normalizeDate(publishedAt, Instant.now().toString()));
+    a.setPublishedAt(normalizeDate(publishedAt, Instant.now()));
     if (description != null && !description.isBlank()) {
       a.setSummary(trimTo(description, 160));
     } else {
@@ -418,28 +427,9 @@ public abstract class BaseWebAdapter implements WebAdapter {
     return trimmed.length() > max ? trimmed.substring(0, max) : trimmed;
   }
 
-  protected String normalizeDate(String input, String fallback) {
-    if (input == null || input.isBlank()) {
-      return fallback;
-    }
-    String val = input.trim();
-    try {
-      return Instant.parse(val).toString();
-    } catch (Exception e) {
-      // ignore
-    }
-    try {
-      return OffsetDateTime.parse(val).toInstant().toString();
-    } catch (Exception e) {
-      // ignore
-    }
-    try {
-      LocalDateTime dt = LocalDateTime.parse(val, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-      return dt.toString();
-    } catch (Exception e) {
-      // ignore
-    }
-    return fallback;
+  protected Instant normalizeDate(String input, Instant fallback) {
+    Instant parsed = Timestamps.parse(input, localZone());
+    return parsed != null ? parsed : fallback;
   }
 
   protected String bestImageSrc(Element img) {
@@ -80,9 +80,10 @@ public class JiqizhixinWebAdapter extends BaseWebAdapter {
       a.setSourceName(sourceName);
       a.setTitle(title.trim());
       a.setTags(tags);
-      a.setPublishedAt(publishedAt);
+      // 首页只有“今天 / 01月25日”等文本，无法识别时按抓取时间
+      a.setPublishedAt(normalizeDate(publishedAt, Instant.now()));
       a.setTumbnailURL(thumb);
-      a.setScrapedAt(Instant.now().toString());
+      a.setScrapedAt(Instant.now());
       results.add(a);
       if (results.size() >= MAX_ARTICLES) {
         break;
@@ -28,7 +28,7 @@ public class MusicBusinessWorldwideWebAdapter extends BaseWebAdapter {
     NewsArticle a = new NewsArticle();
     a.setSourceURL(url);
     a.setSourceName(sourceName);
-    a.setScrapedAt(Instant.now().toString());
+    a.setScrapedAt(Instant.now());
 
     String title = firstNonBlank(
       metaContent(doc, "property", "og:title"),
@@ -49,7 +49,7 @@ public class MusicBusinessWorldwideWebAdapter extends BaseWebAdapter {
     }
 
     a.setTitle(title.trim());
-    a.setPublishedAt(normalizeDate(publishedAt, Instant.now().toString()));
+    a.setPublishedAt(normalizeDate(publishedAt, Instant.now()));
 
     if (!isBlank(description)) {
       a.setSummary(trimTo(description, 160));
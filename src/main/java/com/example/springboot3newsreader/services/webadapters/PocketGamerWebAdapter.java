@@ -30,7 +30,7 @@ public class PocketGamerWebAdapter extends BaseWebAdapter {
     NewsArticle a = new NewsArticle();
     a.setSourceURL(url);
     a.setSourceName(sourceName);
-    a.setScrapedAt(Instant.now().toString());
+    a.setScrapedAt(Instant.now());
 
     String title = firstNonBlank(
       textOrNull(doc.selectFirst("article h1")),
@@ -52,7 +52,7 @@ public class PocketGamerWebAdapter extends BaseWebAdapter {
     }
 
     a.setTitle(title.trim());
-    a.setPublishedAt(normalizeDate(publishedAt, Instant.now().toString()));
+    a.setPublishedAt(normalizeDate(publishedAt, Instant.now()));
 
     if (!isBlank(description)) {
       a.setSummary(trimTo(description, 160));
@@ -2,13 +2,12 @@ package com.example.springboot3newsreader.services.webadapters;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.jsoup.nodes.Document;
@@ -23,6 +22,9 @@ import com.example.springboot3newsreader.models.NewsArticle;
 @Order(0)
 public class QbitaiWebAdapter extends BaseWebAdapter {
 
+  // 量子位页面上的日期时间是北京时间，不带时区
+  private static final ZoneId SITE_ZONE = ZoneId.of("Asia/Shanghai");
+
   @Override
   public boolean supports(String siteUrl) {
     String host = getHost(siteUrl);
@@ -76,7 +78,7 @@ public class QbitaiWebAdapter extends BaseWebAdapter {
       a.setTitle(title.trim());
       a.setSummary(summary);
       a.setTumbnailURL(thumb);
-      a.setScrapedAt(Instant.now().toString());
+      a.setScrapedAt(Instant.now());
       results.add(a);
       if (results.size() >= MAX_ARTICLES) {
         break;
@@ -93,43 +95,38 @@ public class QbitaiWebAdapter extends BaseWebAdapter {
     if (previews.isEmpty()) {
       return previews;
     }
-    ExecutorService pool = Executors.newFixedThreadPool(PARSE_THREADS);
-    try {
-      List<Future<NewsArticle>> tasks = new ArrayList<>();
-      for (NewsArticle preview : previews) {
-        if (!needsDetailFetch(preview)) {
-          tasks.add(CompletableFuture.completedFuture(preview));
-          continue;
-        }
-        tasks.add(pool.submit(new Callable<NewsArticle>() {
-          @Override
-          public NewsArticle call() {
-            try {
-              return enrichFromDetail(preview);
-            } catch (Exception e) {
-              System.out.println("[preview] qbitai detail error: " + preview.getSourceURL());
-              e.printStackTrace();
-              return preview;
-            }
-          }
-        }));
+    List<Future<NewsArticle>> tasks = new ArrayList<>();
+    for (NewsArticle preview : previews) {
+      if (!needsDetailFetch(preview)) {
+        tasks.add(CompletableFuture.completedFuture(preview));
+        continue;
       }
-      List<NewsArticle> enriched = new ArrayList<>();
-      for (Future<NewsArticle> task : tasks) {
-        try {
-          enriched.add(task.get());
-        } catch (Exception e) {
-          // ignore individual failures
+      tasks.add(submitPage(preview.getSourceURL(), new Callable<NewsArticle>() {
+        @Override
+        public NewsArticle call() {
+          try {
+            return enrichFromDetail(preview);
+          } catch (Exception e) {
+            System.out.println("[preview] qbitai detail error: " + preview.getSourceURL());
+            e.printStackTrace();
+            return preview;
+          }
         }
+      }));
+    }
+    List<NewsArticle> enriched = new ArrayList<>();
+    for (Future<NewsArticle> task : tasks) {
+      try {
+        enriched.add(task.get());
+      } catch (Exception e) {
+        // ignore individual failures
       }
-      return enriched;
-    } finally {
-      pool.shutdown();
     }
+    return enriched;
   }
 
   private boolean needsDetailFetch(NewsArticle article) {
-    return isBlank(article.getPublishedAt())
+    return article.getPublishedAt() == null
       || isBlank(article.getRawContent())
       || isBlank(article.getTags());
   }
@@ -145,13 +142,10 @@ public class QbitaiWebAdapter extends BaseWebAdapter {
     }
     Document doc = fetchDocument(url);
 
-    if (isBlank(article.getPublishedAt())) {
+    if (article.getPublishedAt() == null) {
       String date = textOrNull(doc.selectFirst(".article_info .date"));
       String time = textOrNull(doc.selectFirst(".article_info .time"));
-      String publishedAt = parseDateTime(date, time);
-      if (!isBlank(publishedAt)) {
-        article.setPublishedAt(publishedAt);
-      }
+      article.setPublishedAt(parseDateTime(date, time));
     }
 
     if (isBlank(article.getSummary())) {
@@ -201,7 +195,12 @@ public class QbitaiWebAdapter extends BaseWebAdapter {
     return article;
   }
 
-  private String parseDateTime(String date, String time) {
+  @Override
+  public ZoneId localZone() {
+    return SITE_ZONE;
+  }
+
+  private Instant parseDateTime(String date, String time) {
     if ((date == null || date.isBlank()) && (time == null || time.isBlank())) {
       return null;
     }
@@ -211,12 +210,12 @@ public class QbitaiWebAdapter extends BaseWebAdapter {
       if (!datePart.isBlank() && !timePart.isBlank()) {
         LocalDateTime dt = LocalDateTime.parse(datePart + " " + timePart,
           DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        return dt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return dt.atZone(SITE_ZONE).toInstant();
       }
       if (!datePart.isBlank()) {
         LocalDateTime dt = LocalDateTime.parse(datePart + " 00:00:00",
           DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        return dt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return dt.atZone(SITE_ZONE).toInstant();
       }
     } catch (Exception e) {
       // ignore invalid date
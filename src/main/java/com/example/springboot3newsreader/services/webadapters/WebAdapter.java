@@ -1,5 +1,7 @@
 package com.example.springboot3newsreader.services.webadapters;
 
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 
 import com.example.springboot3newsreader.models.NewsArticle;
@@ -13,4 +15,9 @@ public interface WebAdapter {
 
   // 站点级首图抽取（用于异步补图）
   String fetchThumbnailUrl(String articleUrl) throws Exception;
+
+  // 站点给出的不带时区的时间按哪个时区解释（也用于回填旧版本存下的字符串时间）
+  default ZoneId localZone() {
+    return ZoneOffset.UTC;
+  }
 }
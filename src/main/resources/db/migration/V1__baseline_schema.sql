@@ -0,0 +1,105 @@
+-- 基线表结构（与实体映射一致）。
+-- 旧库的表由 ddl-auto=update 建出，Flyway 以 baseline-version=0 接管后同样执行本脚本：
+-- 全部使用 IF NOT EXISTS，已有的表 / 列 / 索引保持不变，较早版本缺少的列在这里补齐。
+
+create sequence if not exists feed_item_seq start with 1 increment by 50;
+create sequence if not exists news_article_seq start with 1 increment by 50;
+create sequence if not exists thumbnail_task_seq start with 1 increment by 50;
+
+create table if not exists feed_item (
+  id bigint not null,
+  name varchar(255),
+  url varchar(255),
+  source_type varchar(255),
+  category enum ('AI','COMPETITORS','GAMES','MUSIC','UNCATEGORIZED'),
+  enabled bit,
+  created_at datetime(6),
+  updated_at datetime(6),
+  etag varchar(255),
+  last_modified varchar(255),
+  watermark_published_at varchar(255),
+  watermark_entry_key varchar(1024),
+  content_hash varchar(255),
+  normalized_content_hash varchar(255),
+  next_poll_at datetime(6),
+  last_polled_at datetime(6),
+  poll_interval_minutes integer,
+  unchanged_streak integer,
+  new_items_per_hour float(53),
+  publisher_ttl_minutes integer,
+  last_wire_bytes bigint,
+  last_decoded_bytes bigint,
+  primary key (id)
+) engine=InnoDB;
+
+alter table feed_item
+  add column if not exists etag varchar(255),
+  add column if not exists last_modified varchar(255),
+  add column if not exists watermark_published_at varchar(255),
+  add column if not exists watermark_entry_key varchar(1024),
+  add column if not exists content_hash varchar(255),
+  add column if not exists normalized_content_hash varchar(255),
+  add column if not exists next_poll_at datetime(6),
+  add column if not exists last_polled_at datetime(6),
+  add column if not exists poll_interval_minutes integer,
+  add column if not exists unchanged_streak integer,
+  add column if not exists new_items_per_hour float(53),
+  add column if not exists publisher_ttl_minutes integer,
+  add column if not exists last_wire_bytes bigint,
+  add column if not exists last_decoded_bytes bigint;
+
+create table if not exists news_article (
+  id bigint not null,
+  title varchar(255),
+  sourceurl varchar(1024),
+  source_name varchar(255),
+  published_time datetime(6),
+  scraped_time datetime(6),
+  summary varchar(255),
+  tags varchar(255),
+  tumbnailurl varchar(255),
+  category enum ('AI','COMPETITORS','GAMES','MUSIC','UNCATEGORIZED'),
+  cluster_id bigint,
+  url_hash varchar(32),
+  title_fingerprint varbinary(512),
+  primary key (id)
+) engine=InnoDB;
+
+alter table news_article
+  add column if not exists published_time datetime(6),
+  add column if not exists scraped_time datetime(6),
+  add column if not exists cluster_id bigint,
+  add column if not exists url_hash varchar(32),
+  add column if not exists title_fingerprint varbinary(512);
+
+create unique index if not exists uk_news_article_url_hash on news_article (url_hash);
+create index if not exists idx_news_article_category_published on news_article (category, published_time);
+create index if not exists idx_news_article_published on news_article (published_time);
+
+create table if not exists news_article_content (
+  article_id bigint not null,
+  content longtext,
+  primary key (article_id)
+) engine=InnoDB;
+
+-- 不建外键：insert ignore 丢弃的文章可能留下标签行
+create table if not exists article_tag (
+  article_id bigint not null,
+  tag varchar(100) not null,
+  primary key (article_id, tag)
+) engine=InnoDB;
+
+create index if not exists idx_article_tag_tag on article_tag (tag, article_id);
+
+create table if not exists thumbnail_task (
+  id bigint not null,
+  article_id bigint,
+  article_url varchar(1024),
+  status varchar(255),
+  attempts integer,
+  last_error varchar(255),
+  next_retry_at datetime(6),
+  created_at datetime(6),
+  updated_at datetime(6),
+  primary key (id)
+) engine=InnoDB;
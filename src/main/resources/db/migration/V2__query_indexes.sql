@@ -0,0 +1,13 @@
+-- 热点查询的组合索引
+
+-- NewsArticleRepository.findCardsByCategory（category = ? order by id desc）
+create index if not exists idx_news_article_category_id on news_article (category, id);
+
+-- NewsArticleRepository.findRecentTitlesBySourceName（sourceName = ? order by id desc）
+create index if not exists idx_news_article_source_id on news_article (source_name, id);
+
+-- ThumbnailTaskRepository.findReadyTasks（status in (...) and next_retry_at <= ? order by id）
+create index if not exists idx_thumbnail_task_status_retry on thumbnail_task (status, next_retry_at, id);
+
+-- FeedItemRepository.existsByNameAndUrl
+create index if not exists idx_feed_item_name_url on feed_item (name, url);
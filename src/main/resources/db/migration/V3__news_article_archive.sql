@@ -0,0 +1,23 @@
+-- 归档表：超过保留期的文章由 ArticleArchiveService 从 news_article 整行搬入（id 不变）
+-- 只在搜索明确查询保留期之前的时间段时读取，使用 InnoDB 压缩行格式（KEY_BLOCK_SIZE=8，约为原大小的一半）
+create table if not exists news_article_archive (
+  id bigint not null,
+  title varchar(255),
+  sourceurl varchar(1024),
+  source_name varchar(255),
+  published_time datetime(6),
+  scraped_time datetime(6),
+  summary varchar(255),
+  tags varchar(255),
+  tumbnailurl varchar(255),
+  category enum ('AI','COMPETITORS','GAMES','MUSIC','UNCATEGORIZED'),
+  cluster_id bigint,
+  url_hash varchar(32),
+  title_fingerprint varbinary(512),
+  primary key (id)
+) engine=InnoDB row_format=compressed key_block_size=8;
+
+-- 归档后 URL 仍参与去重
+create unique index if not exists uk_news_article_archive_url_hash on news_article_archive (url_hash);
+create index if not exists idx_news_article_archive_category_published on news_article_archive (category, published_time);
+create index if not exists idx_news_article_archive_published on news_article_archive (published_time);
@@ -0,0 +1,7 @@
+-- 原文改为压缩存储（见 NewsArticleContent / CompressedTextConverter），列由 LONGTEXT 改为 LONGBLOB（字节不变）
+alter table news_article_content modify content longblob;
+
+-- 已有的 UTF-8 原文在库内用 COMPRESS()（zlib）就地压缩，格式头 0xFF 0x02；之后新写入的为 0xFF 0x01（带预置字典的 deflate）
+-- UTF-8 不会以 0xFF 开头，条件保证重跑时不会重复压缩
+update news_article_content set content = concat(x'FF02', compress(content))
+  where content is not null and left(content, 1) <> x'FF';
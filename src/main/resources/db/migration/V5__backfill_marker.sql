@@ -0,0 +1,7 @@
+-- 一次性回填（url_hash / title_fingerprint / published_time / article_tag / raw_content）完成后写入一行
+-- 启动时查到标记即跳过对应的全表扫描，见 BackfillMarker
+create table if not exists backfill_marker (
+  name varchar(64) not null,
+  completed_at datetime(6) not null,
+  primary key (name)
+) engine=InnoDB;
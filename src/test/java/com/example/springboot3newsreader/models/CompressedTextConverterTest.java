@@ -0,0 +1,92 @@
+package com.example.springboot3newsreader.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedTextConverterTest {
+
+  private final CompressedTextConverter converter = new CompressedTextConverter();
+
+  @Test
+  void shortTextIsStoredPlain() {
+    String text = "短";
+    byte[] stored = converter.convertToDatabaseColumn(text);
+    assertEquals((byte) 0xFF, stored[0]);
+    assertEquals(0, stored[1]);
+    assertEquals(text, converter.convertToEntityAttribute(stored));
+  }
+
+  @Test
+  void longTextRoundTripsThroughDictionaryDeflate() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      sb.append("<p>第 ").append(i).append(" 段 <a href=\"https://example.com/").append(i)
+          .append("\" target=\"_blank\" rel=\"noopener noreferrer\">link</a></p>\n");
+    }
+    String text = sb.toString();
+    byte[] stored = converter.convertToDatabaseColumn(text);
+    assertEquals((byte) 0xFF, stored[0]);
+    assertEquals(1, stored[1]);
+    assertTrue(stored.length < text.getBytes(StandardCharsets.UTF_8).length / 2);
+    assertEquals(text, converter.convertToEntityAttribute(stored));
+  }
+
+  @Test
+  void readsSqlCompressOutput() {
+    String text = "<html><body>" + "MariaDB COMPRESS() 压缩的原文 ".repeat(20) + "</body></html>";
+    byte[] stored = concat(new byte[] {(byte) 0xFF, 2}, sqlCompress(text.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(text, converter.convertToEntityAttribute(stored));
+  }
+
+  @Test
+  void readsSqlCompressOfEmptyString() {
+    // concat(x'FF02', compress('')) = x'FF02'
+    assertEquals("", converter.convertToEntityAttribute(new byte[] {(byte) 0xFF, 2}));
+  }
+
+  @Test
+  void readsLegacyUtf8WithoutHeader() {
+    String text = "<p>旧版本未压缩的原文</p>";
+    assertEquals(text, converter.convertToEntityAttribute(text.getBytes(StandardCharsets.UTF_8)));
+    assertEquals("x", converter.convertToEntityAttribute(new byte[] {'x'}));
+  }
+
+  @Test
+  void nullStaysNull() {
+    assertNull(converter.convertToDatabaseColumn(null));
+    assertNull(converter.convertToEntityAttribute(null));
+  }
+
+  // 与 MariaDB COMPRESS() 相同的布局：4 字节原长度（低字节在前）+ zlib 数据
+  private static byte[] sqlCompress(byte[] plain) {
+    Deflater deflater = new Deflater();
+    deflater.setInput(plain);
+    deflater.finish();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(plain.length & 0xFF);
+    out.write((plain.length >>> 8) & 0xFF);
+    out.write((plain.length >>> 16) & 0xFF);
+    out.write((plain.length >>> 24) & 0x3F);
+    byte[] buffer = new byte[1024];
+    while (!deflater.finished()) {
+      int n = deflater.deflate(buffer);
+      out.write(buffer, 0, n);
+    }
+    deflater.end();
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(byte[] a, byte[] b) {
+    byte[] out = new byte[a.length + b.length];
+    System.arraycopy(a, 0, out, 0, a.length);
+    System.arraycopy(b, 0, out, a.length, b.length);
+    return out;
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+
+class StoryClusterIndexTest {
+
+  private static final String TITLE = "OpenAI releases new reasoning model for developers";
+  private static final String SUMMARY = "The model improves coding, math and agent tasks and is available "
+      + "in the API and ChatGPT starting today for paid users";
+
+  private static StoryClusterIndex index(int windowSize) {
+    StoryClusterIndex index = new StoryClusterIndex();
+    ReflectionTestUtils.setField(index, "enabled", true);
+    ReflectionTestUtils.setField(index, "windowSize", windowSize);
+    ReflectionTestUtils.setField(index, "maxDistance", 3);
+    index.init();
+    return index;
+  }
+
+  private static NewsArticle article(String title, String summary) {
+    NewsArticle a = new NewsArticle();
+    a.setTitle(title);
+    a.setSummary(summary);
+    return a;
+  }
+
+  @Test
+  void sameStoryAcrossBatchesSharesCluster() {
+    StoryClusterIndex index = index(100);
+    NewsArticle first = article(TITLE, SUMMARY);
+    index.assign(List.of(first));
+    NewsArticle second = article(TITLE.toUpperCase(), SUMMARY + ".");
+    index.assign(List.of(second));
+
+    assertNotNull(first.getClusterId());
+    assertEquals(first.getClusterId(), second.getClusterId());
+  }
+
+  @Test
+  void sameStoryWithinOneBatchSharesCluster() {
+    StoryClusterIndex index = index(100);
+    NewsArticle first = article(TITLE, SUMMARY);
+    NewsArticle second = article(TITLE, SUMMARY);
+    index.assign(List.of(first, second));
+
+    assertEquals(first.getClusterId(), second.getClusterId());
+  }
+
+  @Test
+  void differentStoryGetsNewCluster() {
+    StoryClusterIndex index = index(100);
+    NewsArticle first = article(TITLE, SUMMARY);
+    NewsArticle other = article("Nintendo announces release date for the next Zelda game",
+        "The new adventure arrives on Switch 2 in the spring with a remastered soundtrack");
+    index.assign(List.of(first, other));
+
+    assertNotNull(other.getClusterId());
+    assertNotEquals(first.getClusterId(), other.getClusterId());
+  }
+
+  @Test
+  void oldestEntryIsEvictedWhenWindowIsFull() {
+    StoryClusterIndex index = index(2);
+    NewsArticle first = article(TITLE, SUMMARY);
+    index.assign(List.of(first));
+    index.assign(List.of(
+        article("Nintendo announces release date for the next Zelda game", "Switch 2 adventure in spring"),
+        article("Spotify raises subscription prices in Europe", "Premium plans cost one euro more per month")));
+    NewsArticle again = article(TITLE, SUMMARY);
+    index.assign(List.of(again));
+
+    assertNotNull(again.getClusterId());
+    assertNotEquals(first.getClusterId(), again.getClusterId());
+  }
+
+  @Test
+  void articleWithoutTextIsLeftUnclustered() {
+    StoryClusterIndex index = index(100);
+    NewsArticle empty = article(null, " ");
+    index.assign(List.of(empty));
+
+    assertNull(empty.getClusterId());
+  }
+}
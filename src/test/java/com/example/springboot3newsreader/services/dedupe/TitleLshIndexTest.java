@@ -0,0 +1,74 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TitleLshIndexTest {
+
+  private static final double THRESHOLD = 0.9;
+  private static final String TITLE = "OpenAI releases new reasoning model with stronger coding math and agent "
+      + "abilities for developers across the API and ChatGPT today";
+
+  private static TitleLshIndex index(int maxTitlesPerSource) {
+    TitleLshIndex index = new TitleLshIndex();
+    ReflectionTestUtils.setField(index, "maxTitlesPerSource", maxTitlesPerSource);
+    return index;
+  }
+
+  @Test
+  void nearDuplicateTitleInSameSourceIsFound() {
+    TitleLshIndex index = index(100);
+    index.add("src", TitleFingerprint.of(TITLE));
+    // 多一个词：Jaccard = 21/22
+    assertTrue(index.containsSimilar("src", TitleFingerprint.tokens(TITLE + " update"), THRESHOLD));
+    // 大小写与标点不同的同一标题
+    assertTrue(index.containsSimilar("src", TitleFingerprint.tokens(TITLE.toUpperCase() + "!"), THRESHOLD));
+  }
+
+  @Test
+  void dissimilarTitleOrOtherSourceIsNotFound() {
+    TitleLshIndex index = index(100);
+    index.add("src", TitleFingerprint.of(TITLE));
+    assertFalse(index.containsSimilar("src",
+        TitleFingerprint.tokens("Nintendo announces release date for the next Zelda game"), THRESHOLD));
+    // 只改一半的词：远低于阈值
+    assertFalse(index.containsSimilar("src", TitleFingerprint.tokens("OpenAI releases new reasoning model "
+        + "with weaker music video and image features for artists"), THRESHOLD));
+    assertFalse(index.containsSimilar("other", TitleFingerprint.tokens(TITLE), THRESHOLD));
+  }
+
+  @Test
+  void oldestTitleIsEvictedWhenWindowIsFull() {
+    TitleLshIndex index = index(3);
+    index.add("src", TitleFingerprint.of(TITLE));
+    index.add("src", TitleFingerprint.of("first unrelated headline about games"));
+    index.add("src", TitleFingerprint.of("second unrelated headline about music"));
+    assertTrue(index.containsSimilar("src", TitleFingerprint.tokens(TITLE), THRESHOLD));
+
+    index.add("src", TitleFingerprint.of("third unrelated headline about chips"));
+    assertFalse(index.containsSimilar("src", TitleFingerprint.tokens(TITLE), THRESHOLD));
+    assertTrue(index.containsSimilar("src", TitleFingerprint.tokens("first unrelated headline about games"),
+        THRESHOLD));
+    assertTrue(index.containsSimilar("src", TitleFingerprint.tokens("third unrelated headline about chips"),
+        THRESHOLD));
+  }
+
+  @Test
+  void windowStaysCorrectAfterManyEvictions() {
+    TitleLshIndex index = index(50);
+    for (int i = 0; i < 2000; i++) {
+      index.add("src", TitleFingerprint.of("headline number " + i + " story " + (i * 7919)));
+    }
+    for (int i = 0; i < 1950; i += 97) {
+      assertFalse(index.containsSimilar("src",
+          TitleFingerprint.tokens("headline number " + i + " story " + (i * 7919)), 1.0));
+    }
+    for (int i = 1950; i < 2000; i++) {
+      assertTrue(index.containsSimilar("src",
+          TitleFingerprint.tokens("headline number " + i + " story " + (i * 7919)), 1.0));
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.springboot3newsreader.services.dedupe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class UrlNormalizerTest {
+
+  @Test
+  void stripsTrackingParamsFragmentAndWww() {
+    assertEquals("https://example.com/a?id=1&page=2",
+        UrlNormalizer.normalize("https://www.example.com/a?utm_source=x&id=1&fbclid=abc&page=2#comments"));
+    assertEquals("https://example.com/a",
+        UrlNormalizer.normalize("https://example.com/a?utm_medium=rss&utm_campaign=feed"));
+  }
+
+  @Test
+  void normalizesSchemeHostAndDefaultPorts() {
+    assertEquals("https://example.com/", UrlNormalizer.normalize("HTTPS://Example.COM:443"));
+    assertEquals("http://example.com/Path", UrlNormalizer.normalize("http://www.example.com:80/Path"));
+    assertEquals("http://example.com:8080/", UrlNormalizer.normalize("http://example.com:8080/"));
+  }
+
+  @Test
+  void hashesEquivalentUrlsTheSame() {
+    String hash = UrlNormalizer.hash("https://www.example.com/post/1?utm_source=rss");
+    assertEquals(32, hash.length());
+    assertEquals(hash, UrlNormalizer.hash(" https://example.com/post/1#top "));
+    assertNotEquals(hash, UrlNormalizer.hash("https://example.com/post/2"));
+    assertNull(UrlNormalizer.hash("  "));
+  }
+}
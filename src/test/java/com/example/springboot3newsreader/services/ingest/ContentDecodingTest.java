@@ -0,0 +1,46 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.springboot3newsreader.services.ingest.ContentDecoding.CountingInputStream;
+
+class ContentDecodingTest {
+
+  @Test
+  void bodyWithinLimitIsReadCompletely() throws IOException {
+    byte[] xml = "<rss><channel><title>t</title></channel></rss>".getBytes(StandardCharsets.UTF_8);
+    try (InputStream in = new CountingInputStream(
+        ContentDecoding.decode(new ByteArrayInputStream(gzip(xml)), "gzip"), xml.length)) {
+      assertArrayEquals(xml, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void decompressionBombFailsAtLimit() throws IOException {
+    // 16 MB 的零压缩后只有几十 KB
+    byte[] bomb = gzip(new byte[16 * 1024 * 1024]);
+    try (InputStream in = new CountingInputStream(
+        ContentDecoding.decode(new ByteArrayInputStream(bomb), "gzip"), 1024 * 1024)) {
+      assertThrows(IOException.class, () -> in.transferTo(OutputStream.nullOutputStream()));
+    }
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+      gz.write(data);
+    }
+    return out.toByteArray();
+  }
+}
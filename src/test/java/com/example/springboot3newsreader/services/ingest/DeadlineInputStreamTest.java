@@ -0,0 +1,129 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlineInputStreamTest {
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterEach
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  void stalledBodyTimesOutAndReleasesPermit() {
+    // 先给几个字节，然后像停住的源一样一直阻塞（与 HttpClient 的响应流一样，关闭不会唤醒读取，只响应中断）
+    StalledStream stalled = new StalledStream(new byte[] {'<', 'r', 's', 's'});
+    AtomicInteger released = new AtomicInteger();
+    DeadlineInputStream in = new DeadlineInputStream(stalled, scheduler, 200, 10_000, released::incrementAndGet);
+
+    assertTimeout(Duration.ofSeconds(5), () -> {
+      byte[] head = new byte[4];
+      assertEquals(4, in.read(head, 0, 4));
+      IOException e = assertThrows(IOException.class, () -> in.read(new byte[16], 0, 16));
+      assertTrue(e.getMessage().contains("idle timeout"));
+    });
+    assertEquals(1, released.get());
+    assertTrue(stalled.closed);
+    assertFalse(Thread.currentThread().isInterrupted());
+    // 到期之后的读取直接失败
+    assertThrows(IOException.class, in::read);
+  }
+
+  @Test
+  void slowButSteadyBodyHitsTotalTimeout() {
+    AtomicInteger released = new AtomicInteger();
+    InputStream trickle = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException();
+        }
+        return 'x';
+      }
+    };
+    DeadlineInputStream in = new DeadlineInputStream(trickle, scheduler, 200, 300, released::incrementAndGet);
+
+    assertTimeout(Duration.ofSeconds(5), () -> {
+      IOException e = assertThrows(IOException.class, () -> {
+        while (true) {
+          in.read();
+        }
+      });
+      assertTrue(e.getMessage().contains("total timeout"));
+    });
+    assertEquals(1, released.get());
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  void completeBodyIsReadUnchanged() throws IOException {
+    AtomicInteger released = new AtomicInteger();
+    byte[] body = "<rss><channel/></rss>".getBytes();
+    try (DeadlineInputStream in = new DeadlineInputStream(new ByteArrayInputStream(body), scheduler, 200, 1_000,
+        released::incrementAndGet)) {
+      assertArrayEquals(body, in.readAllBytes());
+    }
+    assertEquals(0, released.get());
+  }
+
+  private static class StalledStream extends InputStream {
+    private final byte[] head;
+    private final CountDownLatch never = new CountDownLatch(1);
+    private int pos;
+    private volatile boolean closed;
+
+    StalledStream(byte[] head) {
+      this.head = head;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] one = new byte[1];
+      return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      if (pos < head.length) {
+        int n = Math.min(len, head.length - pos);
+        System.arraycopy(head, pos, buf, off, n);
+        pos += n;
+        return n;
+      }
+      try {
+        never.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted");
+      }
+      return -1;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.springboot3newsreader.services.ingest.HostPermits.Permit;
+
+class HostPermitsTest {
+
+  private final ExecutorService handoff = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void shutdown() {
+    handoff.shutdownNow();
+  }
+
+  @Test
+  void waiterIsReleasedOnHandoffThreadNotOnReleasingThread() throws Exception {
+    HostPermits permits = new HostPermits(1, handoff);
+    Permit first = permits.acquire("h").get(1, TimeUnit.SECONDS);
+    CompletableFuture<Thread> waiter = permits.acquire("h").thenApply(p -> Thread.currentThread());
+    assertFalse(waiter.isDone());
+
+    // 模拟在 HttpClient 回调 / 读取期限线程上释放：队首请求的后续阶段不能在这里内联执行
+    first.release();
+    assertNotSame(Thread.currentThread(), waiter.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void permitsAreLimitedPerHostAndFifo() throws Exception {
+    HostPermits permits = new HostPermits(1, handoff);
+    Permit a = permits.acquire("h").get(1, TimeUnit.SECONDS);
+    assertTrue(permits.acquire("other").isDone());
+    CompletableFuture<Permit> b = permits.acquire("h");
+    CompletableFuture<Permit> c = permits.acquire("h");
+
+    a.release();
+    // 重复释放不会多还许可
+    a.release();
+    Permit pb = b.get(1, TimeUnit.SECONDS);
+    Thread.sleep(50);
+    assertFalse(c.isDone());
+    pb.release();
+    c.get(1, TimeUnit.SECONDS);
+    assertTrue(c.isDone());
+  }
+}
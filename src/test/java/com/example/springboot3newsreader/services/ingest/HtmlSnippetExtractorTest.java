@@ -0,0 +1,71 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+class HtmlSnippetExtractorTest {
+
+  // 与原先 Jsoup 实现的结果逐一对比
+  private static final String[] SAMPLES = {
+      "<p>Hello <b>world</b></p><p>second&nbsp;para</p>",
+      "<img src=\"https://a.example/x.png?w=1&amp;h=2\"><div>caption</div>",
+      "<div><img alt=x><img src='b.png'></div>text",
+      "plain text with &lt;tags&gt; &amp; entities &#20320;&#x597D; &hellip;",
+      "<script>var a = '<p>no</p>';</script><style>p{}</style><p>visible</p>",
+      "<!-- comment <img src=c.png> --><ul><li>one</li><li>two</li></ul>",
+      "a < b and c<d<br>line<br/>break",
+      "<p>  lots   of\n\n whitespace\t here  </p>",
+      "<h1>Title</h1><table><tr><td>1</td><td>2</td></tr></table>",
+      "<a href=\"/x\">link</a>text<span>inline</span>",
+      "",
+  };
+
+  @Test
+  void matchesJsoupOnSamples() {
+    for (String html : SAMPLES) {
+      assertMatchesJsoup(html, 200);
+      assertMatchesJsoup(html, 10);
+    }
+  }
+
+  @Test
+  void truncatesLongBodiesAndStopsEarly() {
+    StringBuilder html = new StringBuilder("<p><img src=\"first.jpg\">");
+    for (int i = 0; i < 2000; i++) {
+      html.append("<p>word ").append(i).append("</p>");
+    }
+    assertMatchesJsoup(html.toString(), 200);
+
+    HtmlSnippetExtractor.Snippet snippet = HtmlSnippetExtractor.extract(html.toString(), 200);
+    assertEquals("first.jpg", snippet.getImageUrl());
+    assertEquals(200, snippet.getText().length());
+    assertTrue(snippet.isTruncated());
+  }
+
+  @Test
+  void emptySrcMeansNoImage() {
+    HtmlSnippetExtractor.Snippet snippet = HtmlSnippetExtractor.extract("<img src=\"\"><img src=\"b.png\">x", 200);
+    assertNull(snippet.getImageUrl());
+    assertFalse(snippet.isTruncated());
+  }
+
+  private void assertMatchesJsoup(String html, int maxChars) {
+    Document doc = Jsoup.parse(html);
+    Element img = doc.selectFirst("img");
+    String expectedImage = img != null && !img.attr("src").isEmpty() ? img.attr("src") : null;
+    String text = doc.text();
+    String expectedText = text.length() > maxChars ? text.substring(0, maxChars) : text;
+
+    HtmlSnippetExtractor.Snippet snippet = HtmlSnippetExtractor.extract(html, maxChars);
+    assertEquals(expectedImage, snippet.getImageUrl(), html);
+    assertEquals(expectedText, snippet.getText(), html);
+    assertEquals(text.length() > maxChars, snippet.isTruncated(), html);
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.springboot3newsreader.models.NewsArticle;
+import com.example.springboot3newsreader.repositories.ThumbnailTaskRepository;
+import com.example.springboot3newsreader.services.NewsArticleContentService;
+import com.example.springboot3newsreader.services.NewsArticleDedupeService;
+import com.example.springboot3newsreader.services.dedupe.StoryClusterIndex;
+
+class IngestStagesTest {
+
+  private static final String SHARED_URL = "https://example.com/story?utm_source=rss";
+
+  private final NewsArticleDedupeService dedupeService = mock(NewsArticleDedupeService.class);
+  private final NewsArticleContentService contentService = mock(NewsArticleContentService.class);
+  // 每次 saveAll 收到的文章链接
+  private final List<String> inserted = new CopyOnWriteArrayList<>();
+  // 第一次 dedupe 卡住，让后面提交的 feed 落进同一个 dedupe 窗口
+  private final CountDownLatch gate = new CountDownLatch(1);
+  private final AtomicBoolean gated = new AtomicBoolean();
+  private IngestStages stages;
+
+  @BeforeEach
+  void setUp() {
+    when(dedupeService.filterNewArticles(anyList())).thenAnswer(inv -> {
+      if (gated.compareAndSet(false, true)) {
+        gate.await(5, TimeUnit.SECONDS);
+      }
+      return new ArrayList<>(inv.<List<NewsArticle>>getArgument(0));
+    });
+    stages = new IngestStages();
+    ReflectionTestUtils.setField(stages, "newsArticleDedupeService", dedupeService);
+    ReflectionTestUtils.setField(stages, "newsArticleContentService", contentService);
+    ReflectionTestUtils.setField(stages, "thumbnailTaskRepository", mock(ThumbnailTaskRepository.class));
+    ReflectionTestUtils.setField(stages, "storyClusterIndex", mock(StoryClusterIndex.class));
+    ReflectionTestUtils.setField(stages, "queueCapacity", 16);
+    ReflectionTestUtils.setField(stages, "dedupeWorkers", 1);
+    // 两个 persist worker、每批一个 feed：依赖方可能先于占用方完成入库
+    ReflectionTestUtils.setField(stages, "persistWorkers", 2);
+    ReflectionTestUtils.setField(stages, "enrichWorkers", 1);
+    ReflectionTestUtils.setField(stages, "persistBatchSize", 1);
+    ReflectionTestUtils.setField(stages, "persistLingerMs", 0L);
+    ReflectionTestUtils.setField(stages, "submitTimeoutMs", 5000L);
+    stages.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    gate.countDown();
+    stages.stop();
+  }
+
+  @Test
+  void sameUrlFromTwoFeedsIsInsertedOnceAndDependentWaitsForHolder() throws Exception {
+    CountDownLatch holderSaving = new CountDownLatch(1);
+    CountDownLatch holderMayFinish = new CountDownLatch(1);
+    when(contentService.saveAll(anyList())).thenAnswer(inv -> {
+      List<NewsArticle> articles = inv.getArgument(0);
+      articles.forEach(a -> inserted.add(a.getSourceURL()));
+      if (articles.stream().anyMatch(a -> a.getSourceURL().startsWith(SHARED_URL))) {
+        holderSaving.countDown();
+        holderMayFinish.await(5, TimeUnit.SECONDS);
+      }
+      return articles;
+    });
+
+    AtomicBoolean holderState = new AtomicBoolean();
+    AtomicBoolean dependentState = new AtomicBoolean();
+    CompletableFuture<List<NewsArticle>> warmup = submit("warmup", "https://example.com/other", null);
+    CompletableFuture<List<NewsArticle>> holder = submit("a", SHARED_URL, () -> holderState.set(true));
+    CompletableFuture<List<NewsArticle>> dependent = submit("b", SHARED_URL + "&utm_medium=x",
+        () -> dependentState.set(true));
+    gate.countDown();
+
+    assertTrue(holderSaving.await(5, TimeUnit.SECONDS));
+    // 占用方还在入库：依赖方已经走完 persist，但 feed 状态不能提前保存
+    Thread.sleep(200);
+    assertFalse(dependent.isDone());
+    assertFalse(dependentState.get());
+
+    holderMayFinish.countDown();
+    assertEquals(1, holder.get(5, TimeUnit.SECONDS).size());
+    assertEquals(0, dependent.get(5, TimeUnit.SECONDS).size());
+    warmup.get(5, TimeUnit.SECONDS);
+    assertTrue(holderState.get());
+    assertTrue(dependentState.get());
+    assertEquals(1, inserted.stream().filter(url -> url.startsWith(SHARED_URL)).count());
+  }
+
+  @Test
+  void dependentFeedStateIsNotSavedWhenHolderFails() throws Exception {
+    when(contentService.saveAll(anyList())).thenAnswer(inv -> {
+      List<NewsArticle> articles = inv.getArgument(0);
+      if (articles.stream().anyMatch(a -> a.getSourceURL().startsWith(SHARED_URL))) {
+        throw new IllegalStateException("db down");
+      }
+      return articles;
+    });
+
+    AtomicBoolean dependentState = new AtomicBoolean();
+    CompletableFuture<List<NewsArticle>> warmup = submit("warmup", "https://example.com/other", null);
+    CompletableFuture<List<NewsArticle>> holder = submit("a", SHARED_URL, null);
+    CompletableFuture<List<NewsArticle>> dependent = submit("b", SHARED_URL, () -> dependentState.set(true));
+    gate.countDown();
+
+    warmup.get(5, TimeUnit.SECONDS);
+    assertTrue(holder.handle((saved, error) -> error != null).get(5, TimeUnit.SECONDS));
+    assertEquals(0, dependent.get(5, TimeUnit.SECONDS).size());
+    assertFalse(dependentState.get());
+  }
+
+  @Test
+  void submitDoesNotBlockCallerWhenQueueIsFull() throws Exception {
+    when(contentService.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+    // dedupe 卡住时提交超过队列容量（16）的 feed：调用线程不能被阻塞
+    List<CompletableFuture<List<NewsArticle>>> results = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 0; i < 24; i++) {
+      results.add(submit("feed" + i, "https://example.com/" + i, null));
+    }
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+    gate.countDown();
+    for (CompletableFuture<List<NewsArticle>> result : results) {
+      assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+    }
+  }
+
+  private CompletableFuture<List<NewsArticle>> submit(String source, String url, Runnable onCommitted) {
+    NewsArticle a = new NewsArticle();
+    a.setTitle(source + " title");
+    a.setSourceURL(url);
+    a.setSourceName(source);
+    List<NewsArticle> parsed = new ArrayList<>();
+    parsed.add(a);
+    return stages.submit(source, parsed, false, onCommitted);
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.springboot3newsreader.services.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+
+class TimestampsTest {
+
+  private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+  @Test
+  void localTimeUsesGivenZone() {
+    assertEquals(Instant.parse("2024-01-25T02:30:00Z"), Timestamps.parse("2024-01-25T10:30:00", SHANGHAI));
+    assertEquals(Instant.parse("2024-01-25T10:30:00Z"), Timestamps.parse("2024-01-25T10:30:00"));
+  }
+
+  @Test
+  void explicitOffsetIgnoresZone() {
+    assertEquals(Instant.parse("2024-01-25T02:30:00Z"), Timestamps.parse("2024-01-25T02:30:00Z", SHANGHAI));
+    assertEquals(Instant.parse("2024-01-25T02:30:00Z"), Timestamps.parse("2024-01-25T10:30:00+08:00", SHANGHAI));
+  }
+
+  @Test
+  void unrecognizedReturnsNull() {
+    assertNull(Timestamps.parse("01月25日", SHANGHAI));
+    assertNull(Timestamps.parse("  "));
+  }
+}